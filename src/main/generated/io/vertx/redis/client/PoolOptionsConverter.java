@@ -25,6 +25,11 @@ public class PoolOptionsConverter {
             obj.setCleanerInterval(((Number)member.getValue()).intValue());
           }
           break;
+        case "eventLoopAffinity":
+          if (member.getValue() instanceof Boolean) {
+            obj.setEventLoopAffinity((Boolean)member.getValue());
+          }
+          break;
         case "maxSize":
           if (member.getValue() instanceof Number) {
             obj.setMaxSize(((Number)member.getValue()).intValue());
@@ -35,6 +40,11 @@ public class PoolOptionsConverter {
             obj.setMaxWaiting(((Number)member.getValue()).intValue());
           }
           break;
+        case "minIdle":
+          if (member.getValue() instanceof Number) {
+            obj.setMinIdle(((Number)member.getValue()).intValue());
+          }
+          break;
         case "name":
           if (member.getValue() instanceof String) {
             obj.setName((String)member.getValue());
@@ -55,8 +65,10 @@ public class PoolOptionsConverter {
 
   public static void toJson(PoolOptions obj, java.util.Map<String, Object> json) {
     json.put("cleanerInterval", obj.getCleanerInterval());
+    json.put("eventLoopAffinity", obj.isEventLoopAffinity());
     json.put("maxSize", obj.getMaxSize());
     json.put("maxWaiting", obj.getMaxWaiting());
+    json.put("minIdle", obj.getMinIdle());
     if (obj.getName() != null) {
       json.put("name", obj.getName());
     }
@@ -20,6 +20,31 @@ public class RedisConnectOptionsConverter {
   public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, RedisConnectOptions obj) {
     for (java.util.Map.Entry<String, Object> member : json) {
       switch (member.getKey()) {
+        case "autoPipelining":
+          if (member.getValue() instanceof Boolean) {
+            obj.setAutoPipelining((Boolean)member.getValue());
+          }
+          break;
+        case "autoPipeliningCommands":
+          if (member.getValue() instanceof Number) {
+            obj.setAutoPipeliningCommands(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "autoPipeliningLimit":
+          if (member.getValue() instanceof Number) {
+            obj.setAutoPipeliningLimit(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "closeOnCommandTimeout":
+          if (member.getValue() instanceof Boolean) {
+            obj.setCloseOnCommandTimeout((Boolean)member.getValue());
+          }
+          break;
+        case "commandTimeout":
+          if (member.getValue() instanceof Number) {
+            obj.setCommandTimeout(((Number)member.getValue()).longValue());
+          }
+          break;
         case "connectionString":
           if (member.getValue() instanceof String) {
             obj.setConnectionString((String)member.getValue());
@@ -50,11 +75,21 @@ public class RedisConnectOptionsConverter {
             obj.setMaxNestedArrays(((Number)member.getValue()).intValue());
           }
           break;
+        case "maxPendingRequests":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxPendingRequests(((Number)member.getValue()).intValue());
+          }
+          break;
         case "maxWaitingHandlers":
           if (member.getValue() instanceof Number) {
             obj.setMaxWaitingHandlers(((Number)member.getValue()).intValue());
           }
           break;
+        case "multiplexedConnections":
+          if (member.getValue() instanceof Number) {
+            obj.setMultiplexedConnections(((Number)member.getValue()).intValue());
+          }
+          break;
         case "password":
           if (member.getValue() instanceof String) {
             obj.setPassword((String)member.getValue());
@@ -65,6 +100,11 @@ public class RedisConnectOptionsConverter {
             obj.setProtocolNegotiation((Boolean)member.getValue());
           }
           break;
+        case "zeroCopy":
+          if (member.getValue() instanceof Boolean) {
+            obj.setZeroCopy((Boolean)member.getValue());
+          }
+          break;
       }
     }
   }
@@ -74,6 +114,11 @@ public class RedisConnectOptionsConverter {
   }
 
   public static void toJson(RedisConnectOptions obj, java.util.Map<String, Object> json) {
+    json.put("autoPipelining", obj.isAutoPipelining());
+    json.put("autoPipeliningCommands", obj.getAutoPipeliningCommands());
+    json.put("autoPipeliningLimit", obj.getAutoPipeliningLimit());
+    json.put("closeOnCommandTimeout", obj.isCloseOnCommandTimeout());
+    json.put("commandTimeout", obj.getCommandTimeout());
     if (obj.getEndpoint() != null) {
       json.put("endpoint", obj.getEndpoint());
     }
@@ -83,10 +128,13 @@ public class RedisConnectOptionsConverter {
       json.put("endpoints", array);
     }
     json.put("maxNestedArrays", obj.getMaxNestedArrays());
+    json.put("maxPendingRequests", obj.getMaxPendingRequests());
     json.put("maxWaitingHandlers", obj.getMaxWaitingHandlers());
+    json.put("multiplexedConnections", obj.getMultiplexedConnections());
     if (obj.getPassword() != null) {
       json.put("password", obj.getPassword());
     }
     json.put("protocolNegotiation", obj.isProtocolNegotiation());
+    json.put("zeroCopy", obj.isZeroCopy());
   }
 }
@@ -20,6 +20,31 @@ public class RedisOptionsConverter {
   public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, RedisOptions obj) {
     for (java.util.Map.Entry<String, Object> member : json) {
       switch (member.getKey()) {
+        case "autoPipelining":
+          if (member.getValue() instanceof Boolean) {
+            obj.setAutoPipelining((Boolean)member.getValue());
+          }
+          break;
+        case "autoPipeliningCommands":
+          if (member.getValue() instanceof Number) {
+            obj.setAutoPipeliningCommands(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "autoPipeliningLimit":
+          if (member.getValue() instanceof Number) {
+            obj.setAutoPipeliningLimit(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "closeOnCommandTimeout":
+          if (member.getValue() instanceof Boolean) {
+            obj.setCloseOnCommandTimeout((Boolean)member.getValue());
+          }
+          break;
+        case "commandTimeout":
+          if (member.getValue() instanceof Number) {
+            obj.setCommandTimeout(((Number)member.getValue()).longValue());
+          }
+          break;
         case "connectionString":
           if (member.getValue() instanceof String) {
             obj.setConnectionString((String)member.getValue());
@@ -58,6 +83,11 @@ public class RedisOptionsConverter {
             obj.setMaxNestedArrays(((Number)member.getValue()).intValue());
           }
           break;
+        case "maxPendingRequests":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxPendingRequests(((Number)member.getValue()).intValue());
+          }
+          break;
         case "maxPoolSize":
           if (member.getValue() instanceof Number) {
             obj.setMaxPoolSize(((Number)member.getValue()).intValue());
@@ -73,6 +103,11 @@ public class RedisOptionsConverter {
             obj.setMaxWaitingHandlers(((Number)member.getValue()).intValue());
           }
           break;
+        case "multiplexedConnections":
+          if (member.getValue() instanceof Number) {
+            obj.setMultiplexedConnections(((Number)member.getValue()).intValue());
+          }
+          break;
         case "netClientOptions":
           if (member.getValue() instanceof JsonObject) {
             obj.setNetClientOptions(new io.vertx.core.net.NetClientOptions((io.vertx.core.json.JsonObject)member.getValue()));
@@ -123,6 +158,11 @@ public class RedisOptionsConverter {
             obj.setUseReplicas(io.vertx.redis.client.RedisReplicas.valueOf((String)member.getValue()));
           }
           break;
+        case "zeroCopy":
+          if (member.getValue() instanceof Boolean) {
+            obj.setZeroCopy((Boolean)member.getValue());
+          }
+          break;
       }
     }
   }
@@ -132,6 +172,11 @@ public class RedisOptionsConverter {
   }
 
   public static void toJson(RedisOptions obj, java.util.Map<String, Object> json) {
+    json.put("autoPipelining", obj.isAutoPipelining());
+    json.put("autoPipeliningCommands", obj.getAutoPipeliningCommands());
+    json.put("autoPipeliningLimit", obj.getAutoPipeliningLimit());
+    json.put("closeOnCommandTimeout", obj.isCloseOnCommandTimeout());
+    json.put("commandTimeout", obj.getCommandTimeout());
     if (obj.getEndpoint() != null) {
       json.put("endpoint", obj.getEndpoint());
     }
@@ -144,9 +189,11 @@ public class RedisOptionsConverter {
       json.put("masterName", obj.getMasterName());
     }
     json.put("maxNestedArrays", obj.getMaxNestedArrays());
+    json.put("maxPendingRequests", obj.getMaxPendingRequests());
     json.put("maxPoolSize", obj.getMaxPoolSize());
     json.put("maxPoolWaiting", obj.getMaxPoolWaiting());
     json.put("maxWaitingHandlers", obj.getMaxWaitingHandlers());
+    json.put("multiplexedConnections", obj.getMultiplexedConnections());
     if (obj.getNetClientOptions() != null) {
       json.put("netClientOptions", obj.getNetClientOptions().toJson());
     }
@@ -171,5 +218,6 @@ public class RedisOptionsConverter {
     if (obj.getUseReplicas() != null) {
       json.put("useReplicas", obj.getUseReplicas().name());
     }
+    json.put("zeroCopy", obj.isZeroCopy());
   }
 }
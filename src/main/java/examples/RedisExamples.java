@@ -4,6 +4,10 @@ import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.net.NetSocket;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.core.tracing.TracingPolicy;
 import io.vertx.redis.client.*;
 
@@ -243,6 +247,123 @@ public class RedisExamples {
       });
   }
 
+  public void example14(Redis client, AsyncFile file) {
+    client
+      .connect()
+      .onSuccess(conn -> {
+        // the value is written to the file as it is received
+        conn.sendStreaming(Request.cmd(Command.GET).arg("blob"))
+          .pipeTo(file)
+          .onComplete(done -> conn.close());
+      });
+  }
+
+  public void example15(Redis client) {
+    client
+      .connect()
+      .onSuccess(conn -> {
+        // the elements are handled as they are received
+        conn.sendStreamingElements(Request.cmd(Command.LRANGE).arg("list").arg(0).arg(-1))
+          .handler(element -> {
+            // process one element at a time...
+          })
+          .endHandler(v -> conn.close());
+      });
+  }
+
+  public void example16(Redis client) {
+    client
+      .send(Request.cmd(Command.HGETALL).arg("hash"), ResponseDecoder.bufferMap())
+      .onSuccess(map -> {
+        // the map is built straight from the reply bytes
+      });
+  }
+
+  public void example17(Vertx vertx, NetSocket socket) {
+    Redis client = Redis.createClient(
+      vertx,
+      new RedisOptions()
+        .setZeroCopy(true));
+
+    client
+      .send(Request.cmd(Command.GET).arg("key"))
+      .onSuccess(value -> {
+        if (value != null) {
+          // the payload is written as is, and released once written
+          socket.write(value.toBuffer())
+            .onComplete(written -> value.release());
+        }
+      });
+  }
+
+  public void example18(Redis client) {
+    // EVALSHA <sha> 1 <key> <value>
+    PreparedRequest incrBy = PreparedRequest.prepare(Command.EVALSHA, 2, "3ab4c8e0a1d5f3e9b7c2d6f8a0e1b3c5d7f9a2b4", 1);
+
+    client
+      .send(incrBy.request().arg("counter:a").arg(5))
+      .onSuccess(value -> {
+        // ...
+      });
+  }
+
+  public void example19(Vertx vertx, RedisConnection conn) {
+    vertx.fileSystem()
+      .props("/path/to/blob")
+      .onSuccess(props -> vertx.fileSystem()
+        .open("/path/to/blob", new OpenOptions().setRead(true))
+        .compose(file -> conn.send(Request.cmd(Command.SET).arg("blob").arg(file, props.size())))
+        .onSuccess(ok -> {
+          // the file was stored
+        }));
+  }
+
+  public void example20(Vertx vertx) {
+    Redis client = Redis.createClient(
+      vertx,
+      new RedisOptions()
+        .setAutoPipelining(true)
+        .setAutoPipeliningLimit(32 * 1024));
+  }
+
+  public void example21(Vertx vertx) {
+    Redis client = Redis.createClient(
+      vertx,
+      new RedisOptions()
+        .setCommandTimeout(1000));
+
+    client
+      .send(Request.cmd(Command.BLPOP).arg("queue").arg(30).timeout(35_000))
+      .onSuccess(value -> {
+        // ...
+      });
+  }
+
+  public void example22(RedisConnection conn, ReadStream<String> keys) {
+    keys.handler(key -> {
+      conn.send(Request.cmd(Command.INCR).arg(key));
+      if (conn.writeQueueFull()) {
+        // resume once the connection can take more requests
+        keys.pause();
+        conn.drainHandler(v -> keys.resume());
+      }
+    });
+  }
+
+  public void example23(Vertx vertx) {
+    Redis client = Redis.createClient(
+      vertx,
+      new RedisOptions()
+        .setMaxPoolSize(8)
+        .setMultiplexedConnections(2));
+
+    client
+      .send(Request.cmd(Command.GET).arg("key"))
+      .onSuccess(value -> {
+        // ...
+      });
+  }
+
   public void tracing1(RedisOptions options) {
     options.setTracingPolicy(TracingPolicy.ALWAYS);
   }
@@ -28,6 +28,8 @@ public class PoolOptions {
   private int maxSize;
   private int maxWaiting;
   private int recycleTimeout;
+  private boolean eventLoopAffinity;
+  private int minIdle;
 
   public PoolOptions() {
     name = UUID.randomUUID().toString();
@@ -36,6 +38,8 @@ public class PoolOptions {
     maxSize = 6;
     maxWaiting = 24;
     recycleTimeout = 180_000;
+    eventLoopAffinity = false;
+    minIdle = 0;
   }
 
   public PoolOptions(PoolOptions other) {
@@ -44,6 +48,8 @@ public class PoolOptions {
     this.maxSize = other.maxSize;
     this.maxWaiting = other.maxWaiting;
     this.recycleTimeout = other.recycleTimeout;
+    this.eventLoopAffinity = other.eventLoopAffinity;
+    this.minIdle = other.minIdle;
   }
 
   public PoolOptions(JsonObject json) {
@@ -153,6 +159,49 @@ public class PoolOptions {
     return this;
   }
 
+  /**
+   * Tune if connections are pooled per event loop.
+   *
+   * @return true if each event loop has its own pool.
+   */
+  public boolean isEventLoopAffinity() {
+    return eventLoopAffinity;
+  }
+
+  /**
+   * Tune if connections are pooled per event loop. A caller then only gets connections bound to its own event loop,
+   * so replies are not handed over to another thread. The max size and max waiting apply to each event loop.
+   *
+   * @param eventLoopAffinity true to pool the connections per event loop.
+   * @return fluent self.
+   */
+  public PoolOptions setEventLoopAffinity(boolean eventLoopAffinity) {
+    this.eventLoopAffinity = eventLoopAffinity;
+    return this;
+  }
+
+  /**
+   * Tune the minimum number of idle connections kept open per endpoint.
+   *
+   * @return the minimum number of idle connections.
+   */
+  public int getMinIdle() {
+    return minIdle;
+  }
+
+  /**
+   * Tune the minimum number of idle connections kept open per endpoint. The missing connections are opened by the
+   * cleaner, on each {@link #setCleanerInterval(int) cleaner interval}, as long as the pool has room, so the first
+   * requests after a restart or a failover do not wait for the connection handshake.
+   *
+   * @param minIdle the minimum number of idle connections.
+   * @return fluent self.
+   */
+  public PoolOptions setMinIdle(int minIdle) {
+    this.minIdle = minIdle;
+    return this;
+  }
+
   /**
    * Converts this object to JSON notation.
    *
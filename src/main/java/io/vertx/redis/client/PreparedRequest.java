@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client;
+
+import io.vertx.codegen.annotations.GenIgnore;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.redis.client.impl.PreparedRequestImpl;
+
+/**
+ * A template for requests that share a command and their leading arguments, e.g.: {@code HGET <hash> <field>} with a
+ * constant hash. The array header, the command and the constant arguments are encoded once, requests created from
+ * the template only encode their variable arguments.
+ * <p>
+ * A template is immutable and can be shared by connections and threads.
+ */
+@VertxGen
+public interface PreparedRequest {
+
+  /**
+   * Creates a new template. The constants accept the same simple types as {@link Request#cmd(Command, Object...)}.
+   *
+   * @param command   the command to use
+   * @param variables the number of arguments each request will add after the constants
+   * @param constants the leading arguments of all requests
+   * @return a new template
+   */
+  @GenIgnore(GenIgnore.PERMITTED_TYPE)
+  static PreparedRequest prepare(Command command, int variables, Object... constants) {
+    return new PreparedRequestImpl(command, variables, constants);
+  }
+
+  /**
+   * The command of this template.
+   */
+  Command command();
+
+  /**
+   * The number of arguments each request must add.
+   */
+  int variables();
+
+  /**
+   * Creates a new request from this template, exactly {@link #variables()} arguments must be added to it before it
+   * is sent.
+   *
+   * @return a new request instance
+   */
+  Request request();
+}
@@ -15,6 +15,7 @@
  */
 package io.vertx.redis.client;
 
+import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.codegen.annotations.Nullable;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Future;
@@ -98,6 +99,17 @@ public interface Redis {
    */
   Future<@Nullable Response> send(Request command);
 
+  /**
+   * Send the given command to the redis server or cluster and decode the reply with the given decoder, without
+   * building the {@link Response} tree.
+   *
+   * @param command the command to send
+   * @param decoder the decoder of the reply, bound to this request only
+   * @return a future with the decoded reply
+   */
+  @GenIgnore
+  <T> Future<@Nullable T> send(Request command, ResponseDecoder<T> decoder);
+
   /**
    * Sends a list of commands in a single IO operation, this prevents any inter twinning to happen from other
    * client users.
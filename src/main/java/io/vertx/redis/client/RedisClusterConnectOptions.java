@@ -93,6 +93,46 @@ public class RedisClusterConnectOptions extends RedisConnectOptions {
     return (RedisClusterConnectOptions) super.setMaxWaitingHandlers(maxWaitingHandlers);
   }
 
+  @Override
+  public RedisClusterConnectOptions setZeroCopy(boolean zeroCopy) {
+    return (RedisClusterConnectOptions) super.setZeroCopy(zeroCopy);
+  }
+
+  @Override
+  public RedisClusterConnectOptions setAutoPipelining(boolean autoPipelining) {
+    return (RedisClusterConnectOptions) super.setAutoPipelining(autoPipelining);
+  }
+
+  @Override
+  public RedisClusterConnectOptions setAutoPipeliningLimit(int autoPipeliningLimit) {
+    return (RedisClusterConnectOptions) super.setAutoPipeliningLimit(autoPipeliningLimit);
+  }
+
+  @Override
+  public RedisClusterConnectOptions setAutoPipeliningCommands(int autoPipeliningCommands) {
+    return (RedisClusterConnectOptions) super.setAutoPipeliningCommands(autoPipeliningCommands);
+  }
+
+  @Override
+  public RedisClusterConnectOptions setCommandTimeout(long commandTimeout) {
+    return (RedisClusterConnectOptions) super.setCommandTimeout(commandTimeout);
+  }
+
+  @Override
+  public RedisClusterConnectOptions setCloseOnCommandTimeout(boolean closeOnCommandTimeout) {
+    return (RedisClusterConnectOptions) super.setCloseOnCommandTimeout(closeOnCommandTimeout);
+  }
+
+  @Override
+  public RedisClusterConnectOptions setMaxPendingRequests(int maxPendingRequests) {
+    return (RedisClusterConnectOptions) super.setMaxPendingRequests(maxPendingRequests);
+  }
+
+  @Override
+  public RedisClusterConnectOptions setMultiplexedConnections(int multiplexedConnections) {
+    return (RedisClusterConnectOptions) super.setMultiplexedConnections(multiplexedConnections);
+  }
+
   /**
    * Converts this object to JSON notation.
    *
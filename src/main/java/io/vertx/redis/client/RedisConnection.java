@@ -16,10 +16,12 @@
 package io.vertx.redis.client;
 
 import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.codegen.annotations.Nullable;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.streams.ReadStream;
 
 import java.util.List;
@@ -80,6 +82,49 @@ public interface RedisConnection extends ReadStream<Response> {
    */
   Future<@Nullable Response> send(Request command);
 
+  /**
+   * Send the given command to the redis server or cluster and decode the reply with the given decoder, without
+   * building the {@link Response} tree.
+   *
+   * @param command the command to send
+   * @param decoder the decoder of the reply, bound to this request only
+   * @return a future with the decoded reply
+   */
+  @GenIgnore
+  <T> Future<@Nullable T> send(Request command, ResponseDecoder<T> decoder);
+
+  /**
+   * Send the given command to the redis server or cluster and stream the bulk reply as it is received, instead of
+   * buffering it entirely in memory. This is useful for large values that can be piped to a file or an HTTP response.
+   * <p>
+   * The payload is emitted in chunks as they are read from the socket, a slow consumer pauses the connection until
+   * the chunks are consumed. A nil reply is an empty stream and an error reply fails the stream. Non bulk replies are
+   * emitted as a single chunk, aggregate replies fail the stream.
+   * <p>
+   * While the stream is paused, replies to other commands sent on this connection are also held.
+   *
+   * @param command the command to send
+   * @return a stream of the reply payload
+   */
+  ReadStream<Buffer> sendStreaming(Request command);
+
+  /**
+   * Send the given command to the redis server or cluster and stream the elements of the aggregate reply as they are
+   * parsed, instead of materializing the whole reply in memory. This is useful for commands that can reply with a
+   * large number of elements, such as {@code LRANGE key 0 -1} or {@code HGETALL}.
+   * <p>
+   * Only the top level aggregate is streamed, nested aggregates are emitted once complete. Map entries are emitted as
+   * the key followed by its value. A slow consumer pauses the connection until the elements are consumed, which bounds
+   * the memory used by wide replies. A nil reply is an empty stream, an error reply fails the stream and any other
+   * reply is emitted as a single element.
+   * <p>
+   * While the stream is paused, replies to other commands sent on this connection are also held.
+   *
+   * @param command the command to send
+   * @return a stream of the reply elements
+   */
+  ReadStream<@Nullable Response> sendStreamingElements(Request command);
+
   /**
    * Sends a list of commands in a single IO operation, this prevents any inter twinning to happen from other
    * client users.
@@ -103,4 +148,23 @@ public interface RedisConnection extends ReadStream<Response> {
    * @return true is queue is full.
    */
   boolean pendingQueueFull();
+
+  /**
+   * Whether new requests would be held instead of sent: the waiting queue is full, requests are already held, or the
+   * socket write queue is full. Once this returns {@code true}, the {@link #drainHandler(Handler)} is called when
+   * requests can be sent again.
+   *
+   * @return true if the producer should wait for the drain handler.
+   */
+  boolean writeQueueFull();
+
+  /**
+   * Set a drain handler on the connection, called after {@link #writeQueueFull()} returned {@code true} once
+   * requests can be sent again.
+   *
+   * @param handler the handler
+   * @return self
+   */
+  @Fluent
+  RedisConnection drainHandler(@Nullable Handler<Void> handler);
 }
@@ -50,6 +50,14 @@ public class RedisOptions {
   private volatile String password;
   private boolean protocolNegotiation;
   private TracingPolicy tracingPolicy;
+  private boolean zeroCopy;
+  private boolean autoPipelining;
+  private int autoPipeliningLimit;
+  private int autoPipeliningCommands;
+  private long commandTimeout;
+  private boolean closeOnCommandTimeout;
+  private int maxPendingRequests;
+  private int multiplexedConnections;
 
   /**
    * Creates a default configuration object using redis server defaults
@@ -66,6 +74,14 @@ public class RedisOptions {
     maxNestedArrays = 32;
     protocolNegotiation = true;
     maxWaitingHandlers = 2048;
+    zeroCopy = false;
+    autoPipelining = false;
+    autoPipeliningLimit = 65536;
+    autoPipeliningCommands = 1024;
+    commandTimeout = 0;
+    closeOnCommandTimeout = false;
+    maxPendingRequests = 0;
+    multiplexedConnections = 0;
   }
 
   /**
@@ -84,6 +100,14 @@ public class RedisOptions {
     this.useReplicas = other.useReplicas;
     this.password = other.password;
     this.protocolNegotiation = other.protocolNegotiation;
+    this.zeroCopy = other.zeroCopy;
+    this.autoPipelining = other.autoPipelining;
+    this.autoPipeliningLimit = other.autoPipeliningLimit;
+    this.autoPipeliningCommands = other.autoPipeliningCommands;
+    this.commandTimeout = other.commandTimeout;
+    this.closeOnCommandTimeout = other.closeOnCommandTimeout;
+    this.maxPendingRequests = other.maxPendingRequests;
+    this.multiplexedConnections = other.multiplexedConnections;
   }
 
   /**
@@ -517,6 +541,190 @@ public class RedisOptions {
     return this;
   }
 
+  /**
+   * Should bulk replies wrap the network buffers they were received in, instead of copying them to the heap.
+   * By default this is {@code false}.
+   *
+   * @return true to avoid copying bulk payloads.
+   */
+  public boolean isZeroCopy() {
+    return zeroCopy;
+  }
+
+  /**
+   * Should bulk replies wrap the network buffers they were received in, instead of copying them to the heap. When
+   * enabled, bulk payloads are reference counted and must be released with {@link Response#release()} once consumed,
+   * otherwise the network buffers are leaked. This is useful when payloads are forwarded to the network as is, for
+   * example by proxies or HTTP caches.
+   *
+   * @param zeroCopy true to avoid copying bulk payloads.
+   * @return fluent self
+   */
+  public RedisOptions setZeroCopy(boolean zeroCopy) {
+    this.zeroCopy = zeroCopy;
+    return this;
+  }
+
+  /**
+   * Should requests sent in the same event loop iteration be coalesced into a single write.
+   * By default this is {@code false}.
+   *
+   * @return true to coalesce writes.
+   */
+  public boolean isAutoPipelining() {
+    return autoPipelining;
+  }
+
+  /**
+   * Should requests sent in the same event loop iteration be coalesced into a single write. The encoded requests are
+   * accumulated and flushed once the current event loop task ends, or once {@link #getAutoPipeliningLimit()} bytes
+   * or {@link #getAutoPipeliningCommands()} requests are pending, trading a little latency for less system calls under load.
+   *
+   * @param autoPipelining true to coalesce writes.
+   * @return fluent self
+   */
+  public RedisOptions setAutoPipelining(boolean autoPipelining) {
+    this.autoPipelining = autoPipelining;
+    return this;
+  }
+
+  /**
+   * The amount of pending bytes that flushes the coalesced requests before the end of the event loop iteration.
+   * By default this is {@code 65536}.
+   *
+   * @return the flush threshold in bytes.
+   */
+  public int getAutoPipeliningLimit() {
+    return autoPipeliningLimit;
+  }
+
+  /**
+   * Sets the amount of pending bytes that flushes the coalesced requests before the end of the event loop iteration,
+   * only used with auto pipelining.
+   *
+   * @param autoPipeliningLimit the flush threshold in bytes.
+   * @return fluent self
+   */
+  public RedisOptions setAutoPipeliningLimit(int autoPipeliningLimit) {
+    this.autoPipeliningLimit = autoPipeliningLimit;
+    return this;
+  }
+
+  /**
+   * The amount of pending requests that flushes the coalesced requests before the end of the event loop iteration,
+   * {@code 0} when only the amount of pending bytes is checked. By default this is {@code 1024}.
+   *
+   * @return the flush threshold in requests.
+   */
+  public int getAutoPipeliningCommands() {
+    return autoPipeliningCommands;
+  }
+
+  /**
+   * Sets the amount of pending requests that flushes the coalesced requests before the end of the event loop
+   * iteration, only used with auto pipelining. Many small requests flush before the amount of bytes is reached.
+   *
+   * @param autoPipeliningCommands the flush threshold in requests.
+   * @return fluent self
+   */
+  public RedisOptions setAutoPipeliningCommands(int autoPipeliningCommands) {
+    this.autoPipeliningCommands = autoPipeliningCommands;
+    return this;
+  }
+
+  /**
+   * The time in milliseconds a command waits for its reply before it times out, {@code 0} when commands never time out.
+   * By default this is {@code 0}.
+   *
+   * @return the timeout in milliseconds.
+   */
+  public long getCommandTimeout() {
+    return commandTimeout;
+  }
+
+  /**
+   * Sets the time in milliseconds a command waits for its reply before it times out, {@code 0} to disable. A request
+   * can override it with {@link Request#timeout(long)}. Streamed replies are not timed out, as a paused stream can
+   * legitimately hold its reply.
+   *
+   * @param commandTimeout the timeout in milliseconds.
+   * @return fluent self
+   */
+  public RedisOptions setCommandTimeout(long commandTimeout) {
+    this.commandTimeout = commandTimeout;
+    return this;
+  }
+
+  /**
+   * Should a command timeout close the connection, failing all its pending commands.
+   * By default this is {@code false}.
+   *
+   * @return true to close the connection on timeouts.
+   */
+  public boolean isCloseOnCommandTimeout() {
+    return closeOnCommandTimeout;
+  }
+
+  /**
+   * Should a command timeout close the connection, failing all its pending commands. By default only the command
+   * fails, its reply is discarded when it arrives, and the connection stays usable.
+   *
+   * @param closeOnCommandTimeout true to close the connection on timeouts.
+   * @return fluent self
+   */
+  public RedisOptions setCloseOnCommandTimeout(boolean closeOnCommandTimeout) {
+    this.closeOnCommandTimeout = closeOnCommandTimeout;
+    return this;
+  }
+
+  /**
+   * The maximum number of requests a connection holds while its waiting queue is full, {@code 0} when such requests
+   * fail at once.
+   * By default this is {@code 0}.
+   *
+   * @return the maximum number of held requests.
+   */
+  public int getMaxPendingRequests() {
+    return maxPendingRequests;
+  }
+
+  /**
+   * Sets the maximum number of requests a connection holds while its waiting queue is full. Held requests are sent in
+   * order as replies free the queue, and only fail once this limit is reached too. Producers can check
+   * {@link RedisConnection#writeQueueFull()} and wait for the {@link RedisConnection#drainHandler} instead of
+   * retrying failed requests.
+   *
+   * @param maxPendingRequests the maximum number of held requests.
+   * @return fluent self
+   */
+  public RedisOptions setMaxPendingRequests(int maxPendingRequests) {
+    this.maxPendingRequests = maxPendingRequests;
+    return this;
+  }
+
+  /**
+   * Get the number of long-lived connections shared by the connection-less sends of the client.
+   *
+   * @return the number of shared connections.
+   */
+  public int getMultiplexedConnections() {
+    return multiplexedConnections;
+  }
+
+  /**
+   * Set the number of long-lived connections shared by the connection-less sends of the client, 0 to lease a
+   * connection from the pool for each send. Shared connections are taken from the pool and kept until the client
+   * is closed, blocking and stateful commands, as well as batches, still lease a connection. It must be lower than the
+   * maximum size of the pool, the client cannot be created otherwise.
+   *
+   * @param multiplexedConnections the number of shared connections.
+   * @return fluent self
+   */
+  public RedisOptions setMultiplexedConnections(int multiplexedConnections) {
+    this.multiplexedConnections = multiplexedConnections;
+    return this;
+  }
+
   /**
    * Set a user defined pool name (for metrics reporting).
    *
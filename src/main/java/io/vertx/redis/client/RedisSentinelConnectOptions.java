@@ -117,6 +117,46 @@ public class RedisSentinelConnectOptions extends RedisConnectOptions {
     return (RedisSentinelConnectOptions) super.setMaxWaitingHandlers(maxWaitingHandlers);
   }
 
+  @Override
+  public RedisSentinelConnectOptions setZeroCopy(boolean zeroCopy) {
+    return (RedisSentinelConnectOptions) super.setZeroCopy(zeroCopy);
+  }
+
+  @Override
+  public RedisSentinelConnectOptions setAutoPipelining(boolean autoPipelining) {
+    return (RedisSentinelConnectOptions) super.setAutoPipelining(autoPipelining);
+  }
+
+  @Override
+  public RedisSentinelConnectOptions setAutoPipeliningLimit(int autoPipeliningLimit) {
+    return (RedisSentinelConnectOptions) super.setAutoPipeliningLimit(autoPipeliningLimit);
+  }
+
+  @Override
+  public RedisSentinelConnectOptions setAutoPipeliningCommands(int autoPipeliningCommands) {
+    return (RedisSentinelConnectOptions) super.setAutoPipeliningCommands(autoPipeliningCommands);
+  }
+
+  @Override
+  public RedisSentinelConnectOptions setCommandTimeout(long commandTimeout) {
+    return (RedisSentinelConnectOptions) super.setCommandTimeout(commandTimeout);
+  }
+
+  @Override
+  public RedisSentinelConnectOptions setCloseOnCommandTimeout(boolean closeOnCommandTimeout) {
+    return (RedisSentinelConnectOptions) super.setCloseOnCommandTimeout(closeOnCommandTimeout);
+  }
+
+  @Override
+  public RedisSentinelConnectOptions setMaxPendingRequests(int maxPendingRequests) {
+    return (RedisSentinelConnectOptions) super.setMaxPendingRequests(maxPendingRequests);
+  }
+
+  @Override
+  public RedisSentinelConnectOptions setMultiplexedConnections(int multiplexedConnections) {
+    return (RedisSentinelConnectOptions) super.setMultiplexedConnections(multiplexedConnections);
+  }
+
   /**
    * Converts this object to JSON notation.
    *
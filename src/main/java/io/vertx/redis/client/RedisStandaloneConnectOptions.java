@@ -68,6 +68,46 @@ public class RedisStandaloneConnectOptions extends RedisConnectOptions {
     return (RedisStandaloneConnectOptions) super.setMaxWaitingHandlers(maxWaitingHandlers);
   }
 
+  @Override
+  public RedisStandaloneConnectOptions setZeroCopy(boolean zeroCopy) {
+    return (RedisStandaloneConnectOptions) super.setZeroCopy(zeroCopy);
+  }
+
+  @Override
+  public RedisStandaloneConnectOptions setAutoPipelining(boolean autoPipelining) {
+    return (RedisStandaloneConnectOptions) super.setAutoPipelining(autoPipelining);
+  }
+
+  @Override
+  public RedisStandaloneConnectOptions setAutoPipeliningLimit(int autoPipeliningLimit) {
+    return (RedisStandaloneConnectOptions) super.setAutoPipeliningLimit(autoPipeliningLimit);
+  }
+
+  @Override
+  public RedisStandaloneConnectOptions setAutoPipeliningCommands(int autoPipeliningCommands) {
+    return (RedisStandaloneConnectOptions) super.setAutoPipeliningCommands(autoPipeliningCommands);
+  }
+
+  @Override
+  public RedisStandaloneConnectOptions setCommandTimeout(long commandTimeout) {
+    return (RedisStandaloneConnectOptions) super.setCommandTimeout(commandTimeout);
+  }
+
+  @Override
+  public RedisStandaloneConnectOptions setCloseOnCommandTimeout(boolean closeOnCommandTimeout) {
+    return (RedisStandaloneConnectOptions) super.setCloseOnCommandTimeout(closeOnCommandTimeout);
+  }
+
+  @Override
+  public RedisStandaloneConnectOptions setMaxPendingRequests(int maxPendingRequests) {
+    return (RedisStandaloneConnectOptions) super.setMaxPendingRequests(maxPendingRequests);
+  }
+
+  @Override
+  public RedisStandaloneConnectOptions setMultiplexedConnections(int multiplexedConnections) {
+    return (RedisStandaloneConnectOptions) super.setMultiplexedConnections(multiplexedConnections);
+  }
+
   /**
    * Converts this object to JSON notation.
    *
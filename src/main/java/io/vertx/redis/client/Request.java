@@ -15,12 +15,14 @@
  */
 package io.vertx.redis.client;
 
+import io.netty.buffer.ByteBuf;
 import io.vertx.codegen.annotations.Fluent;
 import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.redis.client.impl.RequestImpl;
 
 import java.nio.charset.Charset;
@@ -104,13 +106,39 @@ public interface Request {
   }
 
   /**
-   * Adds a String key argument
+   * Adds a String key argument. The buffer is kept by reference and written as is to the socket, so it must not be
+   * modified until the request is sent.
    *
    * @return self
    */
   @Fluent
   Request arg(Buffer arg);
 
+  /**
+   * Adds a Netty buffer argument. The buffer is kept by reference and written as is to the socket, the caller keeps
+   * the ownership of the buffer, which must not be modified or released until the reply is received.
+   *
+   * @return self
+   */
+  @Fluent
+  @GenIgnore(GenIgnore.PERMITTED_TYPE)
+  Request arg(ByteBuf arg);
+
+  /**
+   * Adds an argument whose content is read from the given stream when the request is written, so large values, e.g.:
+   * files, are sent without holding them in memory. The stream is paused until then and is read with the backpressure
+   * of the socket, it must provide exactly {@code length} bytes, otherwise the connection is closed.
+   * <p>
+   * A request with a streamed argument can only be sent once, it cannot be part of a batch and cluster redirections
+   * are not followed for it.
+   *
+   * @param source the content of the argument
+   * @param length the exact length of the content
+   * @return self
+   */
+  @Fluent
+  Request arg(ReadStream<Buffer> source, long length);
+
   /**
    * Adds a long encoded to string
    *
@@ -263,6 +291,16 @@ public interface Request {
   @Deprecated
   Request nullArg();
 
+  /**
+   * Sets the time in milliseconds this request waits for its reply before it times out, overriding
+   * {@link RedisOptions#setCommandTimeout(long)}. {@code 0} disables the timeout for this request.
+   *
+   * @param timeout the timeout in milliseconds
+   * @return self
+   */
+  @Fluent
+  Request timeout(long timeout);
+
   /**
    * Get the Command that is to be used by this request.
    *
@@ -286,6 +286,14 @@ public interface Response extends Iterable<Response> {
     throw new UnsupportedOperationException("This type doesn't hold an Array/Map type");
   }
 
+  /**
+   * Releases the network buffers held by this response, and by the responses it holds. This is only required when
+   * the client is configured with zero copy bulk replies, otherwise it has no effect. A response must not be used
+   * after being released.
+   */
+  default void release() {
+  }
+
   /**
    * Return an iterator so it can be iterated using the foreach construct.
    *
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.impl.decoders.BufferListDecoder;
+import io.vertx.redis.client.impl.decoders.BufferMapDecoder;
+import io.vertx.redis.client.impl.decoders.LongDecoder;
+import io.vertx.redis.client.impl.decoders.ScoredMembersDecoder;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes a reply straight from the wire into a target type, without building the {@link Response} tree.
+ * <p>
+ * A decoder is bound to a single request. The values of the reply are notified in the order they are parsed, an
+ * aggregate notifies its size and then each of its elements. Errors are not notified, a top level error fails the
+ * request and nested errors fail it once the whole reply is parsed.
+ * <p>
+ * By default, all notifications fail the request, decoders override the ones they expect.
+ *
+ * @param <T> the decoded type
+ */
+public interface ResponseDecoder<T> {
+
+  /**
+   * Decodes a reply as a {@code long}, from an integer or its text representation.
+   */
+  static ResponseDecoder<Long> longValue() {
+    return new LongDecoder();
+  }
+
+  /**
+   * Decodes an aggregate reply as a list of buffers, e.g.: {@code LRANGE} or {@code MGET}. Nil elements are
+   * {@code null}.
+   */
+  static ResponseDecoder<List<Buffer>> bufferList() {
+    return new BufferListDecoder();
+  }
+
+  /**
+   * Decodes a map reply, or an aggregate of alternating keys and values, as a map of buffers, e.g.: {@code HGETALL}.
+   */
+  static ResponseDecoder<Map<String, Buffer>> bufferMap() {
+    return new BufferMapDecoder();
+  }
+
+  /**
+   * Decodes members with their scores as an ordered map, e.g.: {@code ZRANGE key 0 -1 WITHSCORES}. Both the flat
+   * {@code RESP2} and the nested {@code RESP3} shapes are supported.
+   */
+  static ResponseDecoder<Map<String, Double>> scoredMembers() {
+    return new ScoredMembersDecoder();
+  }
+
+  /**
+   * A bulk string, the buffer is owned by the decoder.
+   */
+  default void bulk(Buffer value) {
+    throw new IllegalStateException("Unexpected bulk reply");
+  }
+
+  /**
+   * A simple string.
+   */
+  default void simple(String value) {
+    throw new IllegalStateException("Unexpected simple reply");
+  }
+
+  /**
+   * An integer.
+   */
+  default void number(long value) {
+    throw new IllegalStateException("Unexpected number reply");
+  }
+
+  /**
+   * A double.
+   */
+  default void decimal(double value) {
+    throw new IllegalStateException("Unexpected double reply");
+  }
+
+  /**
+   * A big number.
+   */
+  default void bigNumber(BigInteger value) {
+    throw new IllegalStateException("Unexpected big number reply");
+  }
+
+  /**
+   * A boolean.
+   */
+  default void bool(boolean value) {
+    throw new IllegalStateException("Unexpected boolean reply");
+  }
+
+  /**
+   * A nil value, either a nil bulk, a nil aggregate or the {@code RESP3} null.
+   */
+  default void nil() {
+    throw new IllegalStateException("Unexpected nil reply");
+  }
+
+  /**
+   * The start of an aggregate, its elements follow. A map is followed by {@code size} keys, each followed by its value.
+   *
+   * @param size the number of elements, or entries for a map
+   * @param map {@code true} when the aggregate is a map
+   */
+  default void multi(int size, boolean map) {
+    throw new IllegalStateException("Unexpected multi reply");
+  }
+
+  /**
+   * Returns the decoded value once the whole reply has been parsed.
+   */
+  T result();
+}
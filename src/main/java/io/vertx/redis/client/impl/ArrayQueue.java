@@ -19,6 +19,10 @@ import io.vertx.codegen.annotations.Nullable;
 
 import java.util.Objects;
 
+/**
+ * A bounded FIFO queue of the handlers waiting for replies. It is not thread safe, it is confined to the event loop of
+ * its connection.
+ */
 final class ArrayQueue {
 
   private int
@@ -106,6 +110,10 @@ final class ArrayQueue {
     return queue.length - cur;
   }
 
+  int capacity() {
+    return queue.length;
+  }
+
   /**
    * Tests if the queue is logically full
    */
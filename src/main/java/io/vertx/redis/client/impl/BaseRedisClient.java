@@ -2,6 +2,7 @@ package io.vertx.redis.client.impl;
 
 import io.vertx.codegen.annotations.Nullable;
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.impl.logging.Logger;
@@ -19,15 +20,27 @@ public abstract class BaseRedisClient implements Redis {
 
   protected final VertxInternal vertx;
   protected final RedisConnectionManager connectionManager;
+  // the connections multiplexed by the connection-less sends, null when each send leases a connection
+  private final SharedConnections sharedConnections;
 
   public BaseRedisClient(Vertx vertx, NetClientOptions tcpOptions, PoolOptions poolOptions, RedisConnectOptions connectOptions, TracingPolicy tracingPolicy) {
+    // validate options, the shared connections would starve the requests that must lease a connection
+    if (connectOptions.getMultiplexedConnections() >= poolOptions.getMaxSize()) {
+      throw new IllegalStateException("Invalid options: multiplexedConnections >= maxSize");
+    }
     this.vertx = (VertxInternal) vertx;
     this.connectionManager = new RedisConnectionManager(this.vertx, tcpOptions, poolOptions, connectOptions, tracingPolicy);
     this.connectionManager.start();
+    this.sharedConnections = connectOptions.getMultiplexedConnections() > 0 ?
+      new SharedConnections(connectOptions.getMultiplexedConnections(), this::connect) :
+      null;
   }
 
   @Override
   public void close() {
+    if (sharedConnections != null) {
+      sharedConnections.close();
+    }
     this.connectionManager.close();
   }
 
@@ -39,6 +52,15 @@ public abstract class BaseRedisClient implements Redis {
       return vertx.getOrCreateContext().failedFuture("PubSub command in connection-less mode not allowed");
     }
 
+    if (sharedConnections != null && SharedConnections.canShare((RequestImpl) request)) {
+      // so that the caller is called back on its original context
+      final Promise<Response> promise = vertx.promise();
+      sharedConnections.get()
+        .compose(conn -> conn.send(request))
+        .onComplete(promise);
+      return promise.future();
+    }
+
     return connect()
       .compose(conn ->
         conn.send(request)
@@ -48,6 +70,32 @@ public abstract class BaseRedisClient implements Redis {
               .onFailure(LOG::warn)));
   }
 
+  @Override
+  public <T> Future<T> send(Request request, ResponseDecoder<T> decoder) {
+    final CommandImpl cmd = (CommandImpl) request.command();
+    if (cmd.isPubSub()) {
+      // mixing pubSub cannot be used on a one-shot operation
+      return vertx.getOrCreateContext().failedFuture("PubSub command in connection-less mode not allowed");
+    }
+
+    if (sharedConnections != null && SharedConnections.canShare((RequestImpl) request)) {
+      // so that the caller is called back on its original context
+      final Promise<T> promise = vertx.promise();
+      sharedConnections.get()
+        .compose(conn -> conn.send(request, decoder))
+        .onComplete(promise);
+      return promise.future();
+    }
+
+    return connect()
+      .compose(conn ->
+        conn.send(request, decoder)
+          // regardless of the result, return the connection to the pool
+          .eventually(e ->
+            conn.close()
+              .onFailure(LOG::warn)));
+  }
+
   @Override
   public Future<List<@Nullable Response>> batch(List<Request> requests) {
     if (requests.isEmpty()) {
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseType;
+import io.vertx.redis.client.impl.types.ErrorType;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The waiting handler of all the replies of a batch. The same instance takes one slot per command in the waiting
+ * queue, as the commands of a batch are queued together their replies arrive in order and are stored by index. The
+ * user future is completed once all the replies have arrived.
+ */
+final class BatchReply {
+
+  private final Promise<List<Response>> promise;
+  private final Response[] replies;
+  // the index of the next reply
+  private int next;
+  // the errors of the batch, created on the first one
+  private StringBuilder errors;
+
+  BatchReply(Promise<List<Response>> promise, int size) {
+    this.promise = promise;
+    this.replies = new Response[size];
+  }
+
+  Future<List<Response>> future() {
+    return promise.future();
+  }
+
+  int size() {
+    return replies.length;
+  }
+
+  /**
+   * Whether the next reply is the last one of the batch.
+   */
+  boolean isLast() {
+    return next == replies.length - 1;
+  }
+
+  /**
+   * Stores the next reply of the batch.
+   *
+   * @param reply the reply, {@code null} for nil
+   * @return {@code false} if the batch was complete already once all the replies have arrived
+   */
+  boolean complete(Response reply) {
+    final int index = next++;
+
+    if (reply != null && reply.type() == ResponseType.ERROR) {
+      if (errors == null) {
+        errors = new StringBuilder();
+      } else {
+        errors.append(System.lineSeparator());
+      }
+      String cause = reply.toString();
+      if (cause != null && cause.startsWith("ERR ")) {
+        // strip the ERR prefix
+        cause = cause.substring(4);
+      }
+      // the message rewrite is just to comply to the redis error message contract
+      errors.append("ERR [").append(index).append("] ").append(cause);
+    } else {
+      replies[index] = reply;
+    }
+
+    if (next < replies.length) {
+      return true;
+    }
+
+    // all results have arrived
+    if (errors == null && promise.tryComplete(Arrays.asList(replies))) {
+      return true;
+    }
+
+    // the replies are not handed over
+    for (Response value : replies) {
+      if (value != null) {
+        value.release();
+      }
+    }
+    return errors != null && promise.tryFail(ErrorType.create(errors.toString()));
+  }
+
+  boolean fail(Throwable t) {
+    return promise.tryFail(t);
+  }
+
+  @Override
+  public String toString() {
+    return promise.toString();
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.codegen.annotations.Nullable;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.redis.client.Response;
+import io.vertx.redis.client.impl.types.ErrorType;
+
+/**
+ * Streams the payload of a bulk reply as it is read from the socket. The parser hands over the payload in chunks
+ * and completes the reply with an empty bulk, any other reply type is emitted as a single chunk.
+ */
+final class BulkReplyStream extends ReplyStream<Buffer> implements Handler<Buffer> {
+
+  BulkReplyStream(ContextInternal context, ReadStream<?> source) {
+    super(context, source);
+  }
+
+  @Override
+  public void handle(Buffer chunk) {
+    write(chunk);
+  }
+
+  @Override
+  void complete(@Nullable Response reply) {
+    if (reply == null) {
+      // nil is an empty stream
+      end();
+      return;
+    }
+
+    switch (reply.type()) {
+      case ERROR:
+        fail((ErrorType) reply);
+        break;
+      case MULTI:
+      case PUSH:
+      case ATTRIBUTE:
+        reply.release();
+        fail(new IllegalStateException("Aggregate replies cannot be streamed as a bulk: " + reply.type()));
+        break;
+      case BULK:
+        // only verbatim bulks are not chunked, the stream cannot release a zero copy payload so it is copied
+        final Buffer payload = reply.toBuffer();
+        if (payload != null && payload.length() > 0) {
+          write(payload.copy());
+        }
+        reply.release();
+        end();
+        break;
+      default:
+        // simple types are small, emit them as text
+        write(Buffer.buffer(reply.toString()));
+        end();
+        break;
+    }
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.ResponseDecoder;
+import io.vertx.redis.client.impl.types.ErrorType;
+
+import java.math.BigInteger;
+
+/**
+ * The waiting handler of a reply that is decoded by a user {@link ResponseDecoder}. The parser notifies this object,
+ * which guards the user decoder, so that a decoder failure only fails the request and not the connection.
+ */
+final class DecodedReply<T> implements ResponseDecoder<T> {
+
+  private final Promise<T> promise;
+  private final ResponseDecoder<T> decoder;
+  // the first decoder failure
+  private RuntimeException failure;
+
+  DecodedReply(Promise<T> promise, ResponseDecoder<T> decoder) {
+    this.promise = promise;
+    this.decoder = decoder;
+  }
+
+  Future<T> future() {
+    return promise.future();
+  }
+
+  /**
+   * Completes the request once the whole reply was notified.
+   *
+   * @param error the first error in the reply, {@code null} if none
+   * @return {@code true} if the request was resolved by this call
+   */
+  boolean complete(ErrorType error) {
+    if (error != null) {
+      return promise.tryFail(error);
+    }
+    if (failure != null) {
+      return promise.tryFail(failure);
+    }
+
+    final T result;
+    try {
+      result = decoder.result();
+    } catch (RuntimeException e) {
+      return promise.tryFail(e);
+    }
+    return promise.tryComplete(result);
+  }
+
+  boolean fail(Throwable t) {
+    return promise.tryFail(t);
+  }
+
+  @Override
+  public void bulk(Buffer value) {
+    if (failure == null) {
+      try {
+        decoder.bulk(value);
+      } catch (RuntimeException e) {
+        failure = e;
+      }
+    }
+  }
+
+  @Override
+  public void simple(String value) {
+    if (failure == null) {
+      try {
+        decoder.simple(value);
+      } catch (RuntimeException e) {
+        failure = e;
+      }
+    }
+  }
+
+  @Override
+  public void number(long value) {
+    if (failure == null) {
+      try {
+        decoder.number(value);
+      } catch (RuntimeException e) {
+        failure = e;
+      }
+    }
+  }
+
+  @Override
+  public void decimal(double value) {
+    if (failure == null) {
+      try {
+        decoder.decimal(value);
+      } catch (RuntimeException e) {
+        failure = e;
+      }
+    }
+  }
+
+  @Override
+  public void bigNumber(BigInteger value) {
+    if (failure == null) {
+      try {
+        decoder.bigNumber(value);
+      } catch (RuntimeException e) {
+        failure = e;
+      }
+    }
+  }
+
+  @Override
+  public void bool(boolean value) {
+    if (failure == null) {
+      try {
+        decoder.bool(value);
+      } catch (RuntimeException e) {
+        failure = e;
+      }
+    }
+  }
+
+  @Override
+  public void nil() {
+    if (failure == null) {
+      try {
+        decoder.nil();
+      } catch (RuntimeException e) {
+        failure = e;
+      }
+    }
+  }
+
+  @Override
+  public void multi(int size, boolean map) {
+    if (failure == null) {
+      try {
+        decoder.multi(size, map);
+      } catch (RuntimeException e) {
+        failure = e;
+      }
+    }
+  }
+
+  @Override
+  public T result() {
+    return decoder.result();
+  }
+
+  @Override
+  public String toString() {
+    return promise.toString();
+  }
+}
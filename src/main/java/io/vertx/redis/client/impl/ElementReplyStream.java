@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.codegen.annotations.Nullable;
+import io.vertx.core.Handler;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.redis.client.Response;
+import io.vertx.redis.client.impl.types.ErrorType;
+import io.vertx.redis.client.impl.types.StreamedMultiType;
+
+/**
+ * Streams the elements of an aggregate reply as they are parsed. The parser hands over the elements of a top level
+ * aggregate and completes the reply with the (empty) streamed aggregate, any other reply is emitted as a single element.
+ */
+final class ElementReplyStream extends ReplyStream<Response> implements Handler<Response> {
+
+  ElementReplyStream(ContextInternal context, ReadStream<?> source) {
+    super(context, source);
+  }
+
+  @Override
+  public void handle(@Nullable Response element) {
+    write(element);
+  }
+
+  @Override
+  void complete(@Nullable Response reply) {
+    if (reply == null) {
+      // nil is an empty stream
+      end();
+      return;
+    }
+
+    if (reply instanceof StreamedMultiType) {
+      // all elements have been handed over
+      end();
+      return;
+    }
+
+    switch (reply.type()) {
+      case ERROR:
+        fail((ErrorType) reply);
+        break;
+      case MULTI:
+        // empty aggregates are not streamed
+        for (Response element : reply) {
+          write(element);
+        }
+        end();
+        break;
+      default:
+        write(reply);
+        end();
+        break;
+    }
+  }
+}
@@ -15,11 +15,53 @@
  */
 package io.vertx.redis.client.impl;
 
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseDecoder;
+import io.vertx.redis.client.impl.types.ErrorType;
 
 public interface ParserHandler {
 
   void handle(Response response);
 
   void fail(Throwable t);
+
+  /**
+   * Asked when a top level bulk header is parsed. A non {@code null} handler receives the bulk payload in chunks as
+   * they arrive and the reply is then completed with an empty bulk.
+   *
+   * @return the handler for the payload chunks, or {@code null} to aggregate the bulk as usual
+   */
+  default Handler<Buffer> bulkStream() {
+    return null;
+  }
+
+  /**
+   * Asked when a top level aggregate header is parsed. A non {@code null} handler receives the elements as they are
+   * parsed and the reply is then completed with an aggregate that holds no elements.
+   *
+   * @return the handler for the elements, or {@code null} to aggregate the reply as usual
+   */
+  default Handler<Response> multiStream() {
+    return null;
+  }
+
+  /**
+   * Asked when a top level reply starts. A non {@code null} decoder is notified of the values of the reply instead of
+   * building the {@link Response} tree, and the reply is then completed with {@link #decoded(ErrorType)}.
+   *
+   * @return the decoder of the reply, or {@code null} to parse the reply as usual
+   */
+  default ResponseDecoder<?> decoder() {
+    return null;
+  }
+
+  /**
+   * Completes a reply that was notified to a decoder.
+   *
+   * @param failure the first error in the reply, {@code null} if none
+   */
+  default void decoded(ErrorType failure) {
+  }
 }
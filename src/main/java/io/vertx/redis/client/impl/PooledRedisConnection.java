@@ -3,11 +3,14 @@ package io.vertx.redis.client.impl;
 import io.vertx.codegen.annotations.Nullable;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.net.impl.pool.Lease;
 import io.vertx.core.spi.metrics.PoolMetrics;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.redis.client.RedisConnection;
 import io.vertx.redis.client.Request;
 import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseDecoder;
 
 import java.util.List;
 
@@ -76,6 +79,38 @@ public class PooledRedisConnection implements RedisConnection {
       .andThen(reporter::after);
   }
 
+  @Override
+  public <T> Future<T> send(Request command, ResponseDecoder<T> decoder) {
+    CommandReporter reporter = new CommandReporter(connection, command.command().toString());
+    reporter.before();
+    return connection.send(command, decoder)
+      .andThen(reporter::after);
+  }
+
+  @Override
+  public ReadStream<Buffer> sendStreaming(Request command) {
+    CommandReporter reporter = new CommandReporter(connection, command.command().toString());
+    reporter.before();
+    final ReadStream<Buffer> stream = connection.sendStreaming(command);
+    if (stream instanceof ReplyStream) {
+      ((ReplyStream<?>) stream).result()
+        .onComplete(reporter::after);
+    }
+    return stream;
+  }
+
+  @Override
+  public ReadStream<@Nullable Response> sendStreamingElements(Request command) {
+    CommandReporter reporter = new CommandReporter(connection, command.command().toString());
+    reporter.before();
+    final ReadStream<Response> stream = connection.sendStreamingElements(command);
+    if (stream instanceof ReplyStream) {
+      ((ReplyStream<?>) stream).result()
+        .onComplete(reporter::after);
+    }
+    return stream;
+  }
+
   @Override
   public Future<List<@Nullable Response>> batch(List<Request> commands) {
     CommandReporter reporter = new CommandReporter(connection, "batch");
@@ -100,4 +135,15 @@ public class PooledRedisConnection implements RedisConnection {
   public boolean pendingQueueFull() {
     return connection.pendingQueueFull();
   }
+
+  @Override
+  public boolean writeQueueFull() {
+    return connection.writeQueueFull();
+  }
+
+  @Override
+  public RedisConnection drainHandler(@Nullable Handler<Void> handler) {
+    connection.drainHandler(handler);
+    return this;
+  }
 }
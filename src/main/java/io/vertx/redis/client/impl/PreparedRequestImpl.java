@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.redis.client.Command;
+import io.vertx.redis.client.PreparedRequest;
+import io.vertx.redis.client.Request;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static io.vertx.redis.client.impl.RESPEncoder.numLength;
+import static io.vertx.redis.client.impl.RESPEncoder.writeNum;
+
+public final class PreparedRequestImpl implements PreparedRequest {
+
+  private final CommandImpl cmd;
+  private final int variables;
+  // the constant arguments, kept for key lookups
+  private final List<byte[]> constants;
+  // the array header, command and constant arguments
+  private final ByteBuf prefix;
+
+  public PreparedRequestImpl(Command cmd, int variables, Object[] constants) {
+    if (variables < 0) {
+      throw new IllegalArgumentException("variables must be >= 0");
+    }
+
+    this.cmd = (CommandImpl) cmd;
+    this.variables = variables;
+
+    // the constants are converted and encoded as the arguments of a plain request
+    final RequestImpl template = new RequestImpl(cmd, constants == null ? null : constants.clone());
+    final List<byte[]> args = template.getArgs();
+    final int count = 1 + args.size() + variables;
+
+    final ByteBuf buffer = Unpooled.directBuffer(1 + numLength(count) + 2 + template.encodedLength());
+    buffer.writeByte('*');
+    writeNum(buffer, count);
+    buffer
+      .writeByte('\r')
+      .writeByte('\n')
+      .writeBytes(this.cmd.getBytes());
+    // without a composite, buffer constants are copied
+    template.encodeArguments(buffer, null);
+
+    this.constants = Collections.unmodifiableList(new ArrayList<>(args));
+    // the prefix is shared by all requests and never released
+    this.prefix = Unpooled.unreleasableBuffer(buffer.asReadOnly());
+  }
+
+  @Override
+  public Command command() {
+    return cmd;
+  }
+
+  @Override
+  public int variables() {
+    return variables;
+  }
+
+  @Override
+  public Request request() {
+    return new RequestImpl(this);
+  }
+
+  CommandImpl commandImpl() {
+    return cmd;
+  }
+
+  List<byte[]> constants() {
+    return constants;
+  }
+
+  ByteBuf prefix() {
+    return prefix;
+  }
+
+  @Override
+  public String toString() {
+    return cmd.toString() + " " + constants.size() + " constant(s), " + variables + " variable(s)";
+  }
+}
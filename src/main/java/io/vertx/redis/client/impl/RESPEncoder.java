@@ -15,6 +15,10 @@
  */
 package io.vertx.redis.client.impl;
 
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.StandardCharsets;
+
 public final class RESPEncoder {
 
   // precache -1
@@ -52,6 +56,25 @@ public final class RESPEncoder {
     return bytes;
   }
 
+  /**
+   * The amount of ASCII bytes of the given long value, without converting it.
+   */
+  public static int numLength(long value) {
+    if (value >= 0 && value < NUM_MAP_LENGTH) {
+      return NUM_MAP[(int) value].length;
+    }
+    if (value == Long.MIN_VALUE) {
+      // the absolute value overflows
+      return 20;
+    }
+    int length = value < 0 ? 2 : 1;
+    long abs = Math.abs(value);
+    while ((abs /= 10) > 0) {
+      length++;
+    }
+    return length;
+  }
+
   // Optimized for the direct to ASCII bytes case
   // About 5x faster than using Long.toString.bytes
   public static byte[] numToBytes(long value) {
@@ -63,4 +86,34 @@ public final class RESPEncoder {
     }
     return convert(value);
   }
+
+  /**
+   * Writes the ASCII digits of the given long value, without an intermediate byte[] for values outside the cache.
+   */
+  public static void writeNum(ByteBuf buffer, long value) {
+    if (value >= 0 && value < NUM_MAP_LENGTH) {
+      buffer.writeBytes(NUM_MAP[(int) value]);
+      return;
+    }
+    if (value == Long.MIN_VALUE) {
+      // the absolute value overflows
+      buffer.writeBytes(Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+      return;
+    }
+
+    final int length = numLength(value);
+    buffer.ensureWritable(length);
+    // the digits are written backwards from the end
+    final int start = buffer.writerIndex();
+    int index = start + length;
+    long abs = Math.abs(value);
+    do {
+      buffer.setByte(--index, (int) ('0' + abs % 10));
+      abs /= 10;
+    } while (abs > 0);
+    if (value < 0) {
+      buffer.setByte(start, '-');
+    }
+    buffer.writerIndex(start + length);
+  }
 }
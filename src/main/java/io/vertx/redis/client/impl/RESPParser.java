@@ -15,12 +15,17 @@
  */
 package io.vertx.redis.client.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCountUtil;
 import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseDecoder;
 import io.vertx.redis.client.ResponseType;
 import io.vertx.redis.client.impl.types.*;
 
+import java.math.BigInteger;
+
 public final class RESPParser implements Handler<Buffer> {
 
   public static final String VERSION = "3";
@@ -28,6 +33,46 @@ public final class RESPParser implements Handler<Buffer> {
   // 512Mb
   private static final long MAX_STRING_LENGTH = 536870912;
 
+  // receives the values of ignored aggregates of a decoded reply
+  private static final ResponseDecoder<Void> IGNORE = new ResponseDecoder<Void>() {
+    @Override
+    public void bulk(Buffer value) {
+    }
+
+    @Override
+    public void simple(String value) {
+    }
+
+    @Override
+    public void number(long value) {
+    }
+
+    @Override
+    public void decimal(double value) {
+    }
+
+    @Override
+    public void bigNumber(BigInteger value) {
+    }
+
+    @Override
+    public void bool(boolean value) {
+    }
+
+    @Override
+    public void nil() {
+    }
+
+    @Override
+    public void multi(int size, boolean map) {
+    }
+
+    @Override
+    public Void result() {
+      return null;
+    }
+  };
+
   // the callback when a full response message has been decoded
   private final ParserHandler handler;
   // a composite buffer to allow buffer concatenation as if it was
@@ -36,121 +81,373 @@ public final class RESPParser implements Handler<Buffer> {
   // arrays can have nested objects so we need to keep track of the
   // nesting while parsing
   private final ArrayStack stack;
+  // bulk replies wrap the network buffers instead of copying them
+  private final boolean zeroCopy;
 
   RESPParser(ParserHandler handler, int maxStack) {
+    this(handler, maxStack, false);
+  }
+
+  RESPParser(ParserHandler handler, int maxStack, boolean zeroCopy) {
     this.handler = handler;
     this.stack = new ArrayStack(maxStack);
+    this.zeroCopy = zeroCopy;
   }
 
+  // parser state machine states, the parser keeps the progress of the current frame between chunks
+  // so that bytes already consumed are never examined again
+  // waiting for the type byte of the next frame
+  private static final int TYPE = 0;
+  // the type is known, waiting for the end of the header line
+  private static final int HEADER = 1;
+  // the header is parsed, waiting for the fixed length bulk payload and its EOL
+  private static final int PAYLOAD = 2;
+  // the header is parsed, the bulk payload is handed over in chunks as it arrives
+  private static final int STREAM = 3;
+
   // parser state machine state
-  private boolean eol = true;
+  private int state = TYPE;
+  private byte type;
   private int bytesNeeded = 0;
   private boolean verbatim = false;
+  private Handler<Buffer> stream;
+  // the decoder of the top level reply being parsed, if any
+  private ResponseDecoder<?> decoder;
+  // the first nested error of the decoded reply
+  private ErrorType decodeFailure;
+  // the number of aggregates of the decoded reply that are not notified to the decoder
+  private int ignoring;
 
   @Override
   public void handle(Buffer chunk) {
     // add the chunk to the buffer
     buffer.append(chunk);
+    parse();
+  }
 
-    while (buffer.readableBytes() >= (eol ? 3 : bytesNeeded != -1 ? bytesNeeded + 2 : 0)) {
-      // setup a rollback point
+  /**
+   * Handles a raw network message, the parser takes ownership of it.
+   */
+  void handleMessage(Object msg) {
+    if (msg instanceof ByteBuf) {
+      buffer.append((ByteBuf) msg);
+      parse();
+    } else {
+      ReferenceCountUtil.release(msg);
+    }
+  }
+
+  /**
+   * Releases the buffered network data, once the connection is closed.
+   */
+  void release() {
+    buffer.release();
+  }
+
+  private void parse() {
+    while (true) {
+      switch (state) {
+        case TYPE:
+          if (buffer.readableBytes() == 0) {
+            return;
+          }
+          // this is the begin of a message
+          type = buffer.readByte();
+          // push messages and attributes are not the reply to a request
+          if (stack.empty() && type != '>' && type != '|') {
+            decoder = handler.decoder();
+          }
+          state = HEADER;
+          // everything up to the type is consumed
+          buffer.mark();
+          // fall through as the header may already be available
+        case HEADER:
+          if (!handleHeader()) {
+            // wait for more data, the line scan resumes where it stopped
+            return;
+          }
+          break;
+        case PAYLOAD:
+          // fixed length parsing, the EOL must be available too
+          if (buffer.readableBytes() < bytesNeeded + 2) {
+            return;
+          }
+          handlePayload();
+          break;
+        case STREAM:
+          if (!handleStream()) {
+            return;
+          }
+          break;
+      }
+    }
+  }
+
+  private boolean handleHeader() {
+    // locate the eol and handle as a C string
+    final int start = buffer.offset();
+    final int eol = buffer.findLineEnd();
+
+    // not found at all
+    if (eol == -1) {
+      return false;
+    }
+
+    // the frame is complete, unless it is a bulk, the next byte is a new type
+    state = TYPE;
+
+    // special case for sync messages or messages that report the wrong length,
+    // the stray EOL is skipped
+    if (start == eol) {
+      buffer.readByte();
       buffer.mark();
+      return true;
+    }
 
-      // we need to locate the eol
-      if (eol) {
-        // this is the begin of a message
-        final byte type = buffer.readByte();
+    if (decoder != null) {
+      decodeHeader(eol);
+      buffer.mark();
+      return true;
+    }
 
-        // locate the eol and handle as a C string
-        final int start = buffer.offset();
-        final int eol = buffer.findLineEnd();
+    switch (type) {
+      case '+':
+        handleSimpleString(start, eol);
+        break;
+      case '-':
+      case '!':
+        handleError(eol);
+        break;
+      case ':':
+      case ',':
+      case '(':
+        handleNumber(type, eol);
+        break;
+      case '=':
+        handleBulk(eol, true);
+        break;
+      case '$':
+        handleBulk(eol, false);
+        break;
+      case '*':
+      case '%':
+      case '~':
+        handleMulti(type, eol);
+        break;
+      case '_':
+        handleNull();
+        break;
+      case '#':
+        handleBoolean();
+        break;
+      case '|':
+        handleAttribute(eol);
+        break;
+      case '>':
+        handlePush(eol);
+        break;
+      default:
+        // skip the line and notify
+        buffer.readLine(eol);
+        handler.fail(ErrorType.create("ILLEGAL_STATE Unknown RESP type " + (char) type));
+        break;
+    }
 
-        // not found at all
-        if (eol == -1) {
-          buffer.reset();
+    buffer.mark();
+    return true;
+  }
+
+  private void handlePayload() {
+    if (decoder != null) {
+      final Buffer payload = bytesNeeded == 0 ? Buffer.buffer() : buffer.readBytes(bytesNeeded);
+      // the format is not part of the value
+      target().bulk(verbatim ? payload.slice(4, payload.length()) : payload);
+    } else if (bytesNeeded == 0) {
+      // empty string, special case as we don't need to allocate objects for this
+      handleResponse(BulkType.EMPTY, false);
+    } else {
+      // read the required bytes, either by reference or as a copy
+      handleResponse(zeroCopy ?
+        BulkType.create(buffer.readRetainedSlice(bytesNeeded), verbatim) :
+        BulkType.create(buffer.readBytes(bytesNeeded), verbatim), false);
+    }
+    // clear the verbatim
+    verbatim = false;
+    // switch back to type parsing
+    state = TYPE;
+
+    // clean up the buffer, skip to the last \r\n
+    if (!buffer.skipEOL()) {
+      handler.fail(ErrorType.create("ILLEGAL_STATE Redis Bulk is not terminated by EOL"));
+    }
+    buffer.mark();
+
+    if (decoder != null) {
+      decodeValue();
+    }
+  }
+
+  private boolean handleStream() {
+    // hand over whatever is available of the payload
+    if (bytesNeeded > 0) {
+      final int available = Math.min(buffer.readableBytes(), bytesNeeded);
+      if (available > 0) {
+        // the received chunks are handed over as they are, the slices keep them alive once they are discarded. In
+        // zero copy mode the chunks are pooled network buffers that must be released, which a Buffer cannot do, so
+        // they are copied
+        stream.handle(zeroCopy ? buffer.readBytes(available) : Buffer.buffer(buffer.readRetainedSlice(available)));
+        bytesNeeded -= available;
+        // the chunk is consumed and can be discarded
+        buffer.mark();
+      }
+      if (bytesNeeded > 0) {
+        return false;
+      }
+    }
+    // the EOL must be available too
+    if (buffer.readableBytes() < 2) {
+      return false;
+    }
+
+    stream = null;
+    // switch back to type parsing
+    state = TYPE;
+
+    if (!buffer.skipEOL()) {
+      handler.fail(ErrorType.create("ILLEGAL_STATE Redis Bulk is not terminated by EOL"));
+    }
+    buffer.mark();
+    // the payload was fully delivered, complete the reply
+    handleResponse(BulkType.EMPTY, false);
+    return true;
+  }
+
+  private void decodeHeader(int eol) {
+    switch (type) {
+      case '+':
+        target().simple(buffer.readLine(eol));
+        break;
+      case '-':
+      case '!':
+        // nested errors fail the reply once it is complete
+        final ErrorType error = ErrorType.create(buffer.readLine(eol));
+        if (decodeFailure == null) {
+          decodeFailure = error;
+        }
+        break;
+      case ':':
+        target().number(buffer.readLong(eol));
+        break;
+      case ',':
+        target().decimal(buffer.readDouble(eol));
+        break;
+      case '(':
+        target().bigNumber(buffer.readBigInteger(eol));
+        break;
+      case '=':
+      case '$':
+        final long len = buffer.readLong(eol);
+        if (len == -1L) {
+          target().nil();
           break;
         }
-
-        // special case for sync messages or messages that report the wrong length
-        if (start == eol) {
-          buffer.reset();
+        if (len < 0L || len > MAX_STRING_LENGTH) {
+          handler.fail(ErrorType.create("ILLEGAL_STATE Redis Bulk has an invalid length"));
+          return;
+        }
+        // the value is complete once the payload is read
+        bytesNeeded = (int) len;
+        this.state = PAYLOAD;
+        this.verbatim = type == '=';
+        return;
+      case '*':
+      case '%':
+      case '~':
+      case '|':
+      case '>':
+        final long size = buffer.readLong(eol);
+        if (size == -1L) {
+          target().nil();
           break;
         }
-
-        switch (type) {
-          case '+':
-            handleSimpleString(start, eol);
-            break;
-          case '-':
-          case '!':
-            handleError(eol);
-            break;
-          case ':':
-          case ',':
-          case '(':
-            handleNumber(type, eol);
-            break;
-          case '=':
-            handleBulk(eol, true);
-            break;
-          case '$':
-            handleBulk(eol, false);
-            break;
-          case '*':
-          case '%':
-          case '~':
-            handleMulti(type, eol);
-            break;
-          case '_':
-            handleNull();
-            break;
-          case '#':
-            handleBoolean();
-            break;
-          case '|':
-            handleAttribute(eol);
-            break;
-          case '>':
-            handlePush(eol);
-            break;
-          default:
-            // notify
-            handler.fail(ErrorType.create("ILLEGAL_STATE Unknown RESP type " + (char) type));
-            return;
+        if (size < 0L || size > Integer.MAX_VALUE) {
+          handler.fail(ErrorType.create("ILLEGAL_STATE Redis Multi has an invalid length"));
+          return;
         }
-      } else {
-        // empty string
-        if (bytesNeeded == 0) {
-          // special case as we don't need to allocate objects for this
-          handleResponse(BulkType.EMPTY, false);
-        } else {
-          // fixed length parsing && read the required bytes
-          handleResponse(BulkType.create(buffer.readBytes(bytesNeeded), verbatim), false);
-          // clear the verbatim
-          verbatim = false;
+        // attributes are not part of the reply
+        final boolean ignored = type == '|';
+        if (!ignored) {
+          target().multi((int) size, type == '%');
         }
-        // clean up the buffer, skip to the last \r\n
-        if (buffer.skipEOL()) {
-          // switch back to eol parsing
-          eol = true;
-        } else {
-          // operation failed
-          buffer.reset();
+        if (size > 0L) {
+          // maps hold a key and a value per entry
+          decodeMulti(type == '%' || ignored ? size * 2 : size, ignored);
+          return;
         }
+        if (ignored) {
+          return;
+        }
+        break;
+      case '_':
+        buffer.skipEOL();
+        target().nil();
+        break;
+      case '#':
+        final byte value = buffer.readByte();
+        buffer.skipEOL();
+        target().bool(value == 't');
+        break;
+      default:
+        // skip the line and notify
+        buffer.readLine(eol);
+        handler.fail(ErrorType.create("ILLEGAL_STATE Unknown RESP type " + (char) type));
+        return;
+    }
+    decodeValue();
+  }
+
+  private ResponseDecoder<?> target() {
+    return ignoring == 0 ? decoder : IGNORE;
+  }
+
+  private void decodeMulti(long size, boolean ignored) {
+    if (ignored) {
+      ignoring++;
+    }
+    stack.push(new Remaining(size, ignored));
+  }
+
+  private void decodeValue() {
+    // a value completes an element of the aggregates on the stack
+    while (!stack.empty()) {
+      final Remaining remaining = stack.peek();
+      if (--remaining.count > 0) {
+        return;
+      }
+      stack.pop();
+      if (remaining.ignored) {
+        // ignored aggregates are not elements of their parent
+        ignoring--;
+        return;
       }
     }
+    // the top level reply is complete
+    final ErrorType failure = decodeFailure;
+    decoder = null;
+    decodeFailure = null;
+    handler.decoded(failure);
   }
 
   private void handleNumber(byte type, int eol) {
     switch (type) {
       case ':':
-        handleResponse(NumberType.create(buffer.readNumber(eol, ReadableBuffer.NumericType.INTEGER)), false);
+        handleResponse(NumberType.create(buffer.readLong(eol)), false);
         break;
       case ',':
-        handleResponse(NumberType.create(buffer.readNumber(eol, ReadableBuffer.NumericType.DECIMAL)), false);
+        handleResponse(NumberType.create(buffer.readDouble(eol)), false);
         break;
       case '(':
-        handleResponse(NumberType.create(buffer.readNumber(eol, ReadableBuffer.NumericType.BIGINTEGER)), false);
+        handleResponse(NumberType.create(buffer.readBigInteger(eol)), false);
         break;
       default:
         handler.fail(new NumberFormatException("Invalid REDIS format: [" + (char) type + "]"));
@@ -246,8 +543,16 @@ public final class RESPParser implements Handler<Buffer> {
       }
       // safe cast
       bytesNeeded = (int) len;
+      // top level bulks can be handed over without being aggregated
+      if (!verbatim && stack.empty()) {
+        stream = handler.bulkStream();
+        if (stream != null) {
+          this.state = STREAM;
+          return;
+        }
+      }
       // in this case we switch from eol parsing to fixed len parsing
-      this.eol = false;
+      this.state = PAYLOAD;
       this.verbatim = verbatim;
     }
   }
@@ -261,6 +566,14 @@ public final class RESPParser implements Handler<Buffer> {
       if (len == 0L) {
         handleResponse(type == '%' ? MultiType.EMPTY_MAP : MultiType.EMPTY_MULTI, false);
       } else {
+        // top level aggregates can be handed over element by element
+        if (stack.empty()) {
+          final Handler<Response> consumer = handler.multiStream();
+          if (consumer != null) {
+            handleResponse(StreamedMultiType.create(len, type == '%', consumer), true);
+            return;
+          }
+        }
         handleResponse(MultiType.create(len, type == '%'), true);
       }
     }
@@ -294,6 +607,9 @@ public final class RESPParser implements Handler<Buffer> {
             if (m.type() != ResponseType.ATTRIBUTE) {
               // handle the multi to the listener
               handler.handle(m);
+            } else {
+              // attributes are dropped
+              m.release();
             }
             return;
           }
@@ -317,4 +633,17 @@ public final class RESPParser implements Handler<Buffer> {
       }
     }
   }
+
+  /**
+   * Tracks the elements left in an aggregate of a decoded reply.
+   */
+  private static final class Remaining {
+    long count;
+    final boolean ignored;
+
+    Remaining(long count, boolean ignored) {
+      this.count = count;
+      this.ignored = ignored;
+    }
+  }
 }
@@ -15,145 +15,244 @@
  */
 package io.vertx.redis.client.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.ByteProcessor;
 import io.vertx.codegen.annotations.Nullable;
 import io.vertx.core.buffer.Buffer;
 
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 final class ReadableBuffer {
 
-  enum NumericType {
-    INTEGER,
-    DECIMAL,
-    BIGINTEGER
-  }
-
   // limit of integer parsing before overflowing
-  private static final long MAX_INTEGER_DIV_10 = Long.MAX_VALUE / 10;
+  private static final long MIN_INTEGER_DIV_10 = Long.MIN_VALUE / 10;
+  // doubles with up to 15 significant digits and 22 decimal places can be computed with a single
+  // (correctly rounded) division as both operands are exactly representable
+  private static final long MAX_EXACT_MANTISSA = 999_999_999_999_999L;
+  private static final double[] POWERS_OF_10 = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+    1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
   private static final int MARK_WATERMARK = Integer.getInteger("io.vertx.redis.parser.watermark", 16 * 1024);
 
-  private Buffer buffer;
+  // limit of chunks kept before netty consolidates (copies) them into a single component, unbounded by default
+  // as consolidating a large payload that arrives in many chunks would copy it over and over again
+  private static final int MAX_COMPONENTS = Integer.getInteger("io.vertx.redis.parser.maxComponents", Integer.MAX_VALUE);
+
+  // received chunks are kept as components (no copy), already read components
+  // are released as the mark moves forward
+  private final CompositeByteBuf buffer = Unpooled.compositeBuffer(MAX_COMPONENTS);
   private int offset;
 
   private int mark;
+  // position up to which the buffer was already scanned for a line feed, so partial lines are never rescanned
+  private int scanned;
 
   void append(Buffer chunk) {
-    // either the buffer is null or all read
-    if (buffer == null || Math.min(mark, offset) == buffer.length()) {
-      buffer = chunk;
-      offset = 0;
-      return;
-    }
+    append(chunk.getByteBuf());
+  }
 
-    // slice the buffer discarding the read bytes
-    if (
+  /**
+   * Appends a chunk, the buffer takes ownership of it.
+   */
+  void append(ByteBuf chunk) {
+    // either the buffer is empty or all read
+    if (Math.min(mark, offset) == buffer.writerIndex()) {
+      discard(buffer.writerIndex());
+    } else if (
       // the offset (read operations) must be further than the last checkpoint
       offset >= mark &&
         // there must be already read more than water mark
-        mark > MARK_WATERMARK &&
-        // and there are more bytes to read already
-        buffer.length() > mark) {
+        mark > MARK_WATERMARK) {
 
       // clean up when there's too much data
-      buffer = buffer.getBuffer(mark, buffer.length());
-      offset -= mark;
-      mark = 0;
+      discard(mark);
     }
 
-    buffer.appendBuffer(chunk);
+    buffer.addComponent(true, chunk);
+  }
+
+  /**
+   * Releases all the chunks, the buffer cannot be used after.
+   */
+  void release() {
+    buffer.release();
+  }
+
+  /**
+   * Releases the components that are fully before the given index. Components are released as a whole,
+   * so no bytes are copied and the indexes are shifted by the amount of released bytes.
+   */
+  private void discard(int index) {
+    buffer.readerIndex(index);
+    buffer.discardReadComponents();
+    // the reader index now points to the given index, relative to the remaining components
+    final int discarded = index - buffer.readerIndex();
+    offset -= discarded;
+    mark -= discarded;
+    scanned = Math.max(0, scanned - discarded);
   }
 
   int findLineEnd() {
-    int index = -1;
-    for (int i = offset; i < buffer.length(); i++) {
-      if (buffer.getByte(i) == '\n') {
-        index = i;
-        break;
-      }
+    // resume where the previous (incomplete) scan stopped
+    final int from = Math.max(offset, scanned);
+    // the byte processor is applied per component, which avoids the composite index lookup per byte
+    final int index = buffer.forEachByte(from, buffer.writerIndex() - from, ByteProcessor.FIND_LF);
+
+    if (index == -1) {
+      scanned = buffer.writerIndex();
+      return -1;
     }
 
+    scanned = index;
     return (index > 0 && buffer.getByte(index - 1) == '\r') ? index : -1;
   }
 
   long readLong(int end) {
-    long value = 0;
-
-    boolean negative = buffer.getByte(this.offset) == '-';
+    final boolean negative = buffer.getByte(this.offset) == '-';
+    // accumulate negatively, as the negative range is larger than the positive one
+    final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
 
     int offset = negative ? this.offset + 1 : this.offset;
+    long value = 0;
 
     while (offset < end - 1) {
-      if (value > MAX_INTEGER_DIV_10) {
-        throw new ArithmeticException("Overflow");
-      }
-
       int digit = buffer.getByte(offset++) - '0';
 
       if (digit < 0 || digit > 9) {
-        throw new IllegalStateException("Not a digit " + (char) digit);
+        throw new IllegalStateException("Not a digit " + (char) (digit + '0'));
       }
 
-      value = value * 10 - digit;
+      if (value < MIN_INTEGER_DIV_10) {
+        throw new ArithmeticException("Overflow");
+      }
+      value *= 10;
+      if (value < limit + digit) {
+        throw new ArithmeticException("Overflow");
+      }
+      value -= digit;
     }
-    if (!negative) value = -value;
+
     this.offset = end + 1;
+    return negative ? value : -value;
+  }
+
+  double readDouble(int end) {
+    final int length = end - 1 - offset;
+    final double value;
+
+    if (matches("inf", offset, length)) {
+      value = Double.POSITIVE_INFINITY;
+    } else if (matches("-inf", offset, length)) {
+      value = Double.NEGATIVE_INFINITY;
+    } else if (matches("nan", offset, length) || matches("-nan", offset, length)) {
+      value = Double.NaN;
+    } else {
+      value = parseDouble(offset, end - 1);
+    }
+
+    offset = end + 1;
     return value;
   }
 
-  Number readNumber(int end, NumericType type) {
-    Number number = null;
+  BigInteger readBigInteger(int end) {
+    final BigInteger value = new BigInteger(buffer.toString(offset, end - 1 - offset, StandardCharsets.US_ASCII));
+    offset = end + 1;
+    return value;
+  }
 
-    if (end >= offset) {
-      byte[] bytes = buffer.getBytes(offset, end - 1);
-      switch (type) {
-        case INTEGER:
-          number = Long.parseLong(new String(bytes, StandardCharsets.US_ASCII));
-          break;
-        case DECIMAL:
-          if (bytes.length == 3 && bytes[0] == 'i' && bytes[1] == 'n' && bytes[2] == 'f') {
-            number = Double.POSITIVE_INFINITY;
-          } else if (bytes.length == 3 && bytes[0] == 'n' && bytes[1] == 'a' && bytes[2] == 'n') {
-              number = Double.NaN;
-          } else if (bytes.length == 4 && bytes[0] == '-' && bytes[1] == 'i' && bytes[2] == 'n' && bytes[3] == 'f') {
-            number = Double.NEGATIVE_INFINITY;
-          } else if (bytes.length == 4 && bytes[0] == '-' && bytes[1] == 'n' && bytes[2] == 'a' && bytes[3] == 'n') {
-            number = Double.NaN;
-          } else {
-            number = Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
-          }
-          break;
-        case BIGINTEGER:
-          number = new BigInteger(bytes);
-          break;
+  /**
+   * Parses plain decimals ({@code [-]digits[.digits]}) in place, anything else (exponents, too many digits) falls
+   * back to the JDK parser.
+   */
+  private double parseDouble(int start, int end) {
+    final boolean negative = buffer.getByte(start) == '-';
+
+    long mantissa = 0;
+    int scale = -1;
+    int digits = 0;
+
+    for (int i = negative ? start + 1 : start; i < end; i++) {
+      final byte b = buffer.getByte(i);
+      if (b == '.' && scale == -1) {
+        scale = 0;
+        continue;
+      }
+      if (b < '0' || b > '9' || mantissa > MAX_EXACT_MANTISSA / 10) {
+        return Double.parseDouble(buffer.toString(start, end - start, StandardCharsets.US_ASCII));
+      }
+      mantissa = mantissa * 10 + (b - '0');
+      digits++;
+      if (scale != -1) {
+        scale++;
       }
-      offset = end + 1;
     }
 
-    return number;
+    if (digits == 0 || scale >= POWERS_OF_10.length) {
+      return Double.parseDouble(buffer.toString(start, end - start, StandardCharsets.US_ASCII));
+    }
+
+    final double value = scale > 0 ? mantissa / POWERS_OF_10[scale] : mantissa;
+    return negative ? -value : value;
+  }
+
+  private boolean matches(String ascii, int start, int length) {
+    if (ascii.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (buffer.getByte(start + i) != ascii.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   @Nullable String readLine(int end) {
-    byte[] bytes = null;
+    String line = null;
     if (end >= offset) {
-      bytes = buffer.getBytes(offset, end - 1);
+      line = buffer.toString(offset, end - 1 - offset, StandardCharsets.ISO_8859_1);
       offset = end + 1;
     }
-    if (bytes != null) {
-      return new String(bytes, StandardCharsets.ISO_8859_1);
-    }
-    return null;
+    return line;
   }
 
   Buffer readBytes(int count) {
     Buffer bytes = null;
-    if (buffer.length() - offset >= count) {
-      bytes = buffer.getBuffer(offset, offset + count);
+    if (buffer.writerIndex() - offset >= count) {
+      // the only copy of the payload, the components are released once the mark moves past them
+      bytes = Buffer.buffer(buffer.copy(offset, count));
       offset += count;
     }
     return bytes;
   }
 
+  /**
+   * Reads the given amount of bytes without copying them. The returned buffer retains the chunks it spans, so it
+   * outlives them being discarded from this buffer, and must be released.
+   */
+  ByteBuf readRetainedSlice(int count) {
+    ByteBuf slice = null;
+    if (buffer.writerIndex() - offset >= count) {
+      // slice the components and not the composite, as components are discarded (and indexes shifted) independently
+      final List<ByteBuf> parts = buffer.decompose(offset, count);
+      if (parts.size() == 1) {
+        slice = parts.get(0).retain();
+      } else {
+        for (ByteBuf part : parts) {
+          part.retain();
+        }
+        slice = Unpooled.wrappedBuffer(parts.toArray(new ByteBuf[0]));
+      }
+      offset += count;
+    }
+    return slice;
+  }
+
   byte readByte() {
     return buffer.getByte(offset++);
   }
@@ -163,7 +262,7 @@ final class ReadableBuffer {
   }
 
   int readableBytes() {
-    return buffer.length() - offset;
+    return buffer.writerIndex() - offset;
   }
 
   void mark() {
@@ -198,6 +297,6 @@ final class ReadableBuffer {
 
   @Override
   public String toString() {
-    return buffer != null ? buffer.toString() : "null";
+    return buffer.toString(0, buffer.writerIndex(), StandardCharsets.UTF_8);
   }
 }
@@ -235,7 +235,11 @@ public class RedisClusterClient extends BaseRedisClient implements Redis {
           return Future.failedFuture("SLOTS No slots available in the cluster.");
         }
 
-        return Future.succeededFuture(new Slots(endpoint, reply));
+        try {
+          return Future.succeededFuture(new Slots(endpoint, reply));
+        } finally {
+          reply.release();
+        }
       });
   }
 }
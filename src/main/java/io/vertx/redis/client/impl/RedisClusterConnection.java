@@ -2,14 +2,19 @@ package io.vertx.redis.client.impl;
 
 import io.vertx.codegen.annotations.Nullable;
 import io.vertx.core.*;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.impl.NoStackTraceThrowable;
 import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.redis.client.*;
 import io.vertx.redis.client.impl.types.ErrorType;
 
 import java.util.*;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static io.vertx.redis.client.Command.ASKING;
 import static io.vertx.redis.client.Command.AUTH;
@@ -259,7 +264,8 @@ public class RedisClusterConnection implements RedisConnection {
     connection
       .send(command)
       .onComplete(send -> {
-        if (send.failed() && send.cause() instanceof ErrorType && retries >= 0) {
+        // a streamed argument can only be written once, so the request cannot be retried
+        if (send.failed() && send.cause() instanceof ErrorType && retries >= 0 && !((RequestImpl) command).isStreamed()) {
           final ErrorType cause = (ErrorType) send.cause();
 
           if (cause.is("MOVED")) {
@@ -318,6 +324,91 @@ public class RedisClusterConnection implements RedisConnection {
       });
   }
 
+  @Override
+  public <T> Future<T> send(Request request, ResponseDecoder<T> decoder) {
+    final RequestImpl req = (RequestImpl) request;
+    // decoded replies cannot be reduced, so the command must target a single node
+    final String endpoint = singleEndpoint(req);
+
+    if (endpoint == null) {
+      return Future.failedFuture(buildCrossslotFailureMsg(req));
+    }
+
+    final PooledRedisConnection connection = connections.get(endpoint);
+
+    if (connection == null) {
+      return Future.failedFuture("Missing connection to: " + endpoint);
+    }
+
+    // NOTE: MOVED/ASK redirections are not followed for decoded replies, they fail the request
+    return connection.send(request, decoder);
+  }
+
+  @Override
+  public ReadStream<Buffer> sendStreaming(Request request) {
+    return stream((RequestImpl) request, RedisConnection::sendStreaming, () -> new BulkReplyStream(vertx.getOrCreateContext(), this));
+  }
+
+  @Override
+  public ReadStream<Response> sendStreamingElements(Request request) {
+    return stream((RequestImpl) request, RedisConnection::sendStreamingElements, () -> new ElementReplyStream(vertx.getOrCreateContext(), this));
+  }
+
+  /**
+   * Streamed replies cannot be reduced, so the command must target a single node.
+   * NOTE: MOVED/ASK redirections are not followed for streamed replies, they fail the stream.
+   */
+  private <T> ReadStream<T> stream(RequestImpl req, BiFunction<RedisConnection, Request, ReadStream<T>> send, Supplier<ReplyStream<T>> failed) {
+    final String endpoint = singleEndpoint(req);
+    final String failure;
+
+    if (endpoint == null) {
+      failure = buildCrossslotFailureMsg(req);
+    } else {
+      final PooledRedisConnection connection = connections.get(endpoint);
+      if (connection != null) {
+        return send.apply(connection, req);
+      }
+      failure = "Missing connection to: " + endpoint;
+    }
+
+    final ReplyStream<T> stream = failed.get();
+    stream.fail(new NoStackTraceThrowable(failure));
+    return stream;
+  }
+
+  /**
+   * Select the endpoint for a command whose reply cannot be reduced, {@code null} if the keys are not all in the same
+   * hash slot.
+   */
+  private String singleEndpoint(RequestImpl req) {
+    final CommandImpl cmd = (CommandImpl) req.command();
+    final List<byte[]> args = req.getArgs();
+
+    if (cmd.needsGetKeys()) {
+      // the keys are resolved at the server side, run on the master node
+      return selectEndpoint(-1, cmd.isReadOnly(args), true);
+    }
+
+    final boolean forceMasterEndpoint = MASTER_ONLY_COMMANDS.contains(cmd);
+    final List<byte[]> keys = req.keys();
+
+    switch (keys.size()) {
+      case 0:
+        // it doesn't matter which node to use
+        return selectEndpoint(-1, cmd.isReadOnly(args), forceMasterEndpoint);
+      case 1:
+        return selectEndpoint(ZModem.generate(keys.get(0)), cmd.isReadOnly(args), forceMasterEndpoint);
+      default:
+        final int hashSlot = ZModem.generateMultiRaw(keys);
+        if (hashSlot == -1) {
+          // not all keys are in same slot
+          return null;
+        }
+        return selectMasterOrReplicaEndpoint(cmd.isReadOnly(args), slots.endpointsForKey(hashSlot), forceMasterEndpoint);
+    }
+  }
+
   @Override
   public Future<List<Response>> batch(List<Request> requests) {
     final Promise<List<Response>> promise = vertx.promise();
@@ -488,6 +579,28 @@ public class RedisClusterConnection implements RedisConnection {
     return false;
   }
 
+  @Override
+  public boolean writeQueueFull() {
+    for (RedisConnection conn : connections.values()) {
+      if (conn != null) {
+        if (conn.writeQueueFull()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public RedisConnection drainHandler(@Nullable Handler<Void> handler) {
+    for (RedisConnection conn : connections.values()) {
+      if (conn != null) {
+        conn.drainHandler(handler);
+      }
+    }
+    return this;
+  }
+
   /**
    * Select a Redis client for the given key
    */
@@ -27,7 +27,8 @@ public interface RedisConnectionInternal extends RedisConnection {
   void forceClose();
 
   /**
-   * Returns {@code true} is this connection can be reset. This means that the connection didn't enter PubSub mode.
+   * Returns {@code true} is this connection can be reset. This means that the connection didn't enter PubSub mode. A
+   * changed database or authentication is restored by commands written before the next request.
    */
   boolean reset();
 
@@ -15,6 +15,7 @@
  */
 package io.vertx.redis.client.impl;
 
+import io.netty.channel.EventLoop;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.impl.ContextInternal;
@@ -26,6 +27,7 @@ import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.core.net.NetClient;
 import io.vertx.core.net.NetClientOptions;
 import io.vertx.core.net.NetSocket;
+import io.vertx.core.net.impl.NetSocketInternal;
 import io.vertx.core.net.impl.pool.*;
 import io.vertx.core.spi.metrics.ClientMetrics;
 import io.vertx.core.spi.metrics.PoolMetrics;
@@ -34,6 +36,8 @@ import io.vertx.core.tracing.TracingPolicy;
 import io.vertx.redis.client.*;
 import io.vertx.redis.client.impl.types.ErrorType;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 class RedisConnectionManager {
@@ -42,6 +46,10 @@ class RedisConnectionManager {
 
   private static final Handler<Throwable> DEFAULT_EXCEPTION_HANDLER = t -> LOG.error("Unhandled Error", t);
 
+  // reported to the server with CLIENT SETINFO, the version is only known when running from the jar
+  private static final String LIB_NAME = "vertx-redis-client";
+  private static final String LIB_VERSION = RedisConnectionManager.class.getPackage().getImplementationVersion();
+
   private final VertxInternal vertx;
   private final NetClient netClient;
   private final PoolMetrics metrics;
@@ -62,11 +70,11 @@ class RedisConnectionManager {
     VertxMetrics metricsSPI = this.vertx.metricsSPI();
     metrics = metricsSPI != null ? metricsSPI.createPoolMetrics("redis", poolOptions.getName(), poolOptions.getMaxSize()) : null;
     this.netClient = vertx.createNetClient(tcpOptions);
-    this.pooledConnectionManager = new ConnectionManager<>((key, dispose) -> connectionEndpointProvider(dispose, key.string, key.setup));
+    this.pooledConnectionManager = new ConnectionManager<>((key, dispose) -> connectionEndpointProvider(dispose, key.string, key.setup, key.eventLoop));
   }
 
-  private Endpoint<Lease<RedisConnectionInternal>> connectionEndpointProvider(Runnable dispose, String connectionString, Request setup) {
-    return new RedisEndpoint(vertx, netClient, tcpOptions, poolOptions, connectOptions, tracingPolicy, dispose, connectionString, setup);
+  private Endpoint<Lease<RedisConnectionInternal>> connectionEndpointProvider(Runnable dispose, String connectionString, Request setup, EventLoop eventLoop) {
+    return new RedisEndpoint(vertx, netClient, tcpOptions, poolOptions, connectOptions, tracingPolicy, dispose, connectionString, setup, eventLoop);
   }
 
   synchronized void start() {
@@ -75,8 +83,10 @@ class RedisConnectionManager {
   }
 
   private void checkExpired(long period) {
-    pooledConnectionManager.forEach(e ->
-      ((RedisEndpoint) e).pool.evict(conn -> !conn.isValid(), ar -> {
+    final ContextInternal context = vertx.getOrCreateContext();
+    pooledConnectionManager.forEach(e -> {
+      final RedisEndpoint endpoint = (RedisEndpoint) e;
+      endpoint.pool.evict(conn -> !conn.isValid(), ar -> {
         if (ar.succeeded()) {
           for (RedisConnectionInternal conn : ar.result()) {
             // on close we reset the default handlers
@@ -86,17 +96,37 @@ class RedisConnectionManager {
             conn.forceClose();
           }
         }
-      }));
+        // replace the evicted connections, if needed
+        endpoint.warmUp(eventLoopContext(context, endpoint.eventLoop), poolOptions.getMinIdle());
+      });
+    });
     timerID = vertx.setTimer(period, id -> checkExpired(period));
   }
 
+  /**
+   * Returns an event loop context for the pool, on the given event loop if any, or else on the event loop of the
+   * context.
+   */
+  private EventLoopContext eventLoopContext(ContextInternal context, EventLoop eventLoop) {
+    if (eventLoop == null) {
+      if (context instanceof EventLoopContext) {
+        return (EventLoopContext) context;
+      }
+      eventLoop = context.nettyEventLoop();
+    }
+    return vertx.createEventLoopContext(eventLoop, context.workerPool(), context.classLoader());
+  }
+
   static class ConnectionKey {
     private final String string;
     private final Request setup;
+    // the event loop owning the pool, null when the pool is shared by all event loops
+    private final EventLoop eventLoop;
 
-    ConnectionKey(String string, Request setup) {
+    ConnectionKey(String string, Request setup, EventLoop eventLoop) {
       this.string = string;
       this.setup = setup;
+      this.eventLoop = eventLoop;
     }
 
     @Override
@@ -104,12 +134,12 @@ class RedisConnectionManager {
       if (this == o) return true;
       if (o == null || getClass() != o.getClass()) return false;
       ConnectionKey that = (ConnectionKey) o;
-      return Objects.equals(string, that.string) && Objects.equals(setup, that.setup);
+      return Objects.equals(string, that.string) && Objects.equals(setup, that.setup) && eventLoop == that.eventLoop;
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(string, setup);
+      return Objects.hash(string, setup, eventLoop);
     }
   }
 
@@ -193,80 +223,167 @@ class RedisConnectionManager {
       ClientMetrics metrics = vertxMetrics != null
         ? vertxMetrics.createClientMetrics(redisURI.socketAddress(), "redis", netClientOptions.getMetricsName())
         : null;
-      final RedisStandaloneConnection connection = new RedisStandaloneConnection(vertx, ctx, connectionListener, netSocket, poolOptions, options.getMaxWaitingHandlers(), redisURI, metrics, tracingPolicy);
+      final RedisStandaloneConnection connection = new RedisStandaloneConnection(vertx, ctx, connectionListener, netSocket, poolOptions, options, redisURI, metrics, tracingPolicy);
       // initialization
       connection.exceptionHandler(DEFAULT_EXCEPTION_HANDLER);
 
       // parser utility
+      final RESPParser parser = new RESPParser(connection, options.getMaxNestedArrays(), options.isZeroCopy());
+      if (options.isZeroCopy()) {
+        // the socket buffers are heap copies, the raw network buffers are handed over to the parser instead
+        ((NetSocketInternal) netSocket).messageHandler(parser::handleMessage);
+        netSocket
+          .closeHandler(v -> {
+            connection.end(v);
+            parser.release();
+          });
+      } else {
+        netSocket
+          .handler(parser)
+          .closeHandler(connection::end);
+      }
       netSocket
-        .handler(new RESPParser(connection, options.getMaxNestedArrays()))
-        .closeHandler(connection::end)
         .exceptionHandler(connection::fail);
 
       // initial handshake
-      return hello(ctx, connection, redisURI)
-        .compose(hello -> {
-          // perform select
-          return select(ctx, connection, redisURI.select());
-        }).compose(select -> {
-          // perform setup
-          return setup(ctx, connection, setup);
-        }).map(setup -> {
+      return handshake(ctx, connection)
+        .map(v -> {
           // connection is valid
           connection.setValid();
           return new ConnectResult<>(connection, 1, 0);
         });
     }
 
-    private Future<Void> hello(ContextInternal ctx, RedisConnection connection, RedisURI redisURI) {
-      if (!options.isProtocolNegotiation()) {
-        return ping(ctx, connection);
-      } else {
-        Request hello = Request.cmd(Command.HELLO).arg(RESPParser.VERSION);
-
-        String password = redisURI.password() != null ? redisURI.password() : options.getPassword();
-        String user = redisURI.user();
-
-        if (password != null) {
-          // will perform auth at hello level
-          hello
-            .arg("AUTH")
-            .arg(user == null ? "default" : user)
-            .arg(password);
-        }
+    /**
+     * Performs the handshake, {@code HELLO} (or {@code PING}), {@code SELECT}, the setup request and
+     * {@code CLIENT SETINFO} are written at once. If the first request fails, the requests that failed after it are sent
+     * again after the fallback, e.g.: an authentication or an old server that does not support {@code HELLO}. The
+     * library name and version are reported on a best effort basis, servers older than 7.2 fail these requests.
+     */
+    private Future<Void> handshake(ContextInternal ctx, RedisStandaloneConnection connection) {
+      final Integer select = redisURI.select();
+
+      final List<Request> requests = new ArrayList<>(5);
+      requests.add(options.isProtocolNegotiation() ? hello() : Request.cmd(Command.PING));
+      if (select != null) {
+        requests.add(Request.cmd(Command.SELECT).arg(select));
+      }
+      if (setup != null) {
+        requests.add(setup);
+      }
+      // the requests from this index on may fail
+      final int optional = requests.size();
+      requests.add(Request.cmd(Command.CLIENT).arg("SETINFO").arg("LIB-NAME").arg(LIB_NAME));
+      if (LIB_VERSION != null) {
+        requests.add(Request.cmd(Command.CLIENT).arg("SETINFO").arg("LIB-VER").arg(LIB_VERSION));
+      }
 
-        String client = redisURI.param("client");
-        if (client != null) {
-          hello.arg("SETNAME").arg(client);
-        }
+      final List<Future<Response>> replies = connection.pipeline(requests);
+
+      return Future.join(replies)
+        .transform(ignored -> {
+          final Future<Response> first = replies.get(0);
+          if (first.failed()) {
+            Future<Void> recovered = fallback(ctx, connection, first.cause());
+            for (int i = 1; i < replies.size(); i++) {
+              final Future<Response> reply = replies.get(i);
+              if (reply.succeeded()) {
+                discard(reply.result());
+              } else {
+                final Request request = requests.get(i);
+                final boolean required = i < optional;
+                recovered = recovered.compose(v -> resend(ctx, connection, request, required));
+              }
+            }
+            return recovered;
+          }
 
-        return connection
-          .send(hello)
-          .<Void>mapEmpty()
-          .transform(ar -> {
-            if (ar.failed()) {
-              Throwable err = ar.cause();
-              if (err instanceof ErrorType) {
-                final ErrorType redisErr = (ErrorType) err;
-                if (redisErr.is("NOAUTH")) {
-                  return authenticate(ctx, connection, user, password);
-                }
-                if (redisErr.is("ERR")) {
-                  String msg = redisErr.getMessage();
-                  if (msg.startsWith("ERR unknown command") || msg.startsWith("ERR unknown or unsupported command")) {
-                    // chatting to an old server
-                    return ping(ctx, connection);
-                  }
-                }
+          LOG.debug(first.result());
+          if (options.isProtocolNegotiation() && supportsReset(first.result())) {
+            // a connection that subscribed can be restored, the handshake is written again after the RESET
+            connection.resettable(new ArrayList<>(requests.subList(0, optional)));
+          }
+          discard(first.result());
+          Throwable failure = null;
+          for (int i = 1; i < replies.size(); i++) {
+            final Future<Response> reply = replies.get(i);
+            if (reply.failed()) {
+              if (failure == null && i < optional) {
+                failure = reply.cause();
               }
             } else {
-              LOG.debug(ar.result());
+              discard(reply.result());
             }
-            return (Future<Void>) ar;
-          });
+          }
+          return failure == null ? ctx.succeededFuture() : ctx.failedFuture(failure);
+        });
+    }
+
+    /**
+     * Checks the server version of the {@code HELLO} reply, {@code RESET} is available since Redis 6.2.
+     */
+    private static boolean supportsReset(Response hello) {
+      if (hello == null || hello.type() != ResponseType.MULTI) {
+        return false;
+      }
+      final Response version = hello.get("version");
+      if (version == null) {
+        return false;
+      }
+      final String[] parts = version.toString().split("\\.");
+      try {
+        final int major = Integer.parseInt(parts[0]);
+        final int minor = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+        return major > 6 || (major == 6 && minor >= 2);
+      } catch (NumberFormatException e) {
+        return false;
       }
     }
 
+    private Request hello() {
+      Request hello = Request.cmd(Command.HELLO).arg(RESPParser.VERSION);
+
+      String password = redisURI.password() != null ? redisURI.password() : options.getPassword();
+      String user = redisURI.user();
+
+      if (password != null) {
+        // will perform auth at hello level
+        hello
+          .arg("AUTH")
+          .arg(user == null ? "default" : user)
+          .arg(password);
+      }
+
+      String client = redisURI.param("client");
+      if (client != null) {
+        hello.arg("SETNAME").arg(client);
+      }
+
+      return hello;
+    }
+
+    /**
+     * Recovers from a failure of the first handshake request.
+     */
+    private Future<Void> fallback(ContextInternal ctx, RedisConnection connection, Throwable err) {
+      if (err instanceof ErrorType) {
+        final ErrorType redisErr = (ErrorType) err;
+        if (redisErr.is("NOAUTH")) {
+          // old authentication required
+          String password = redisURI.password() != null ? redisURI.password() : options.getPassword();
+          return authenticate(ctx, connection, redisURI.user(), password);
+        }
+        if (options.isProtocolNegotiation() && redisErr.is("ERR")) {
+          String msg = redisErr.getMessage();
+          if (msg.startsWith("ERR unknown command") || msg.startsWith("ERR unknown or unsupported command")) {
+            // chatting to an old server
+            return ping(ctx, connection);
+          }
+        }
+      }
+      return ctx.failedFuture(err);
+    }
+
     private Future<Void> ping(ContextInternal ctx, RedisConnection connection) {
       Request ping = Request.cmd(Command.PING);
 
@@ -284,7 +401,7 @@ class RedisConnectionManager {
               }
             }
           }
-          return ((Future<Response>) ar).mapEmpty();
+          return ((Future<Response>) ar).map(RedisConnectionManager::discard);
         });
     }
 
@@ -301,43 +418,41 @@ class RedisConnectionManager {
       }
       cmd.arg(password);
 
-      return connection.send(cmd).mapEmpty();
+      return connection.send(cmd).map(RedisConnectionManager::discard);
     }
 
-    private Future<Void> select(ContextInternal ctx, RedisConnection connection, Integer select) {
-      if (select == null) {
-        return ctx.succeededFuture();
-      }
-      // perform select
-      return connection
-        .send(Request.cmd(Command.SELECT).arg(select))
-        .mapEmpty();
+    /**
+     * Sends again a handshake request that failed before the fallback, the failure of an optional request is ignored.
+     */
+    private Future<Void> resend(ContextInternal ctx, RedisConnection connection, Request request, boolean required) {
+      final Future<Void> reply = connection
+        .send(request)
+        .map(RedisConnectionManager::discard);
+      return required ? reply : reply.otherwise((Void) null);
     }
+  }
 
-    private Future<Void> setup(ContextInternal ctx, RedisConnection connection, Request setup) {
-      if (setup == null) {
-        return ctx.succeededFuture();
-      }
-      // perform setup
-      return connection
-        .send(setup)
-        .mapEmpty();
+  /**
+   * Discards the reply of an internal request, releasing it in case it holds network buffers.
+   */
+  private static Void discard(Response reply) {
+    if (reply != null) {
+      reply.release();
     }
+    return null;
   }
 
   public Future<PooledRedisConnection> getConnection(String connectionString, Request setup) {
     final ContextInternal context = vertx.getOrCreateContext();
-    final EventLoopContext eventLoopContext;
-    if (context instanceof EventLoopContext) {
-      eventLoopContext = (EventLoopContext) context;
-    } else {
-      eventLoopContext = vertx.createEventLoopContext(context.nettyEventLoop(), context.workerPool(), context.classLoader());
-    }
+    final EventLoopContext eventLoopContext = eventLoopContext(context, null);
 
     final boolean metricsEnabled = metrics != null;
     final Object queueMetric = metricsEnabled ? metrics.submitted() : null;
 
-    Future<Lease<RedisConnectionInternal>> future = pooledConnectionManager.getConnection(eventLoopContext, new ConnectionKey(connectionString, setup));
+    // with affinity, each event loop has its own pool so its connections are bound to it
+    final EventLoop eventLoop = poolOptions.isEventLoopAffinity() ? eventLoopContext.nettyEventLoop() : null;
+
+    Future<Lease<RedisConnectionInternal>> future = pooledConnectionManager.getConnection(eventLoopContext, new ConnectionKey(connectionString, setup, eventLoop));
     return future
       .onFailure(err -> {
         if (metricsEnabled) {
@@ -364,11 +479,48 @@ class RedisConnectionManager {
   static class RedisEndpoint extends Endpoint<Lease<RedisConnectionInternal>> {
 
     final ConnectionPool<RedisConnectionInternal> pool;
+    // the event loop owning the pool, null when the pool is shared by all event loops
+    final EventLoop eventLoop;
 
-    public RedisEndpoint(VertxInternal vertx, NetClient netClient, NetClientOptions netClientOptions, PoolOptions poolOptions, RedisConnectOptions connectOptions, TracingPolicy tracingPolicy, Runnable dispose, String connectionString, Request setup) {
+    public RedisEndpoint(VertxInternal vertx, NetClient netClient, NetClientOptions netClientOptions, PoolOptions poolOptions, RedisConnectOptions connectOptions, TracingPolicy tracingPolicy, Runnable dispose, String connectionString, Request setup, EventLoop eventLoop) {
       super(dispose);
       PoolConnector<RedisConnectionInternal> connector = new RedisConnectionProvider(vertx, netClient, netClientOptions, poolOptions, connectOptions, tracingPolicy, connectionString, setup);
       pool = ConnectionPool.pool(connector, new int[]{poolOptions.getMaxSize()}, poolOptions.getMaxWaiting());
+      this.eventLoop = eventLoop;
+    }
+
+    /**
+     * Opens connections until the pool holds at least {@code minIdle} idle ones. The connections are acquired at once,
+     * the acquisitions take the idle connections first and then create the missing ones while the pool has room.
+     * Connections in use do not count, and an acquisition that would wait for one of them is cancelled.
+     */
+    void warmUp(EventLoopContext ctx, int minIdle) {
+      if (minIdle <= 0 || pool.waiters() > 0) {
+        // the pool is busy, the connections will be created by the requests
+        return;
+      }
+
+      final PoolWaiter.Listener<RedisConnectionInternal> listener = new PoolWaiter.Listener<RedisConnectionInternal>() {
+        @Override
+        public void onEnqueue(PoolWaiter<RedisConnectionInternal> waiter) {
+          // the pool is full, never wait for a connection in use nor ahead of the requests
+          pool.cancel(waiter, ar -> {});
+        }
+      };
+
+      // all the acquisitions are made before any lease is recycled, so an idle connection is not acquired twice
+      ctx.runOnContext(v -> {
+        for (int i = 0; i < minIdle; i++) {
+          pool.acquire(ctx, listener, 0, ar -> {
+            if (ar.succeeded()) {
+              final Lease<RedisConnectionInternal> lease = ar.result();
+              ctx.runOnContext(v2 -> lease.recycle());
+            } else {
+              LOG.debug("Failed to warm up the pool", ar.cause());
+            }
+          });
+        }
+      });
     }
 
     @Override
@@ -189,6 +189,9 @@ public class RedisReplicationClient extends BaseRedisClient implements Redis {
       .onSuccess(info -> {
 
         final Map<String, String> reply = parseInfo(info);
+        if (info != null) {
+          info.release();
+        }
 
         if (reply.size() == 0) {
           // no slots available we can't really proceed
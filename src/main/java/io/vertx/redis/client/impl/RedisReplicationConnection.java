@@ -4,8 +4,10 @@ import io.vertx.codegen.annotations.Nullable;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.redis.client.*;
 
 import java.util.ArrayList;
@@ -121,6 +123,36 @@ public class RedisReplicationConnection implements RedisConnection {
       .send(request);
   }
 
+  @Override
+  public <T> Future<T> send(Request request, ResponseDecoder<T> decoder) {
+    final RequestImpl req = (RequestImpl) request;
+    final CommandImpl cmd = (CommandImpl) req.command();
+    final boolean forceMasterEndpoint = MASTER_ONLY_COMMANDS.contains(cmd);
+
+    return selectMasterOrReplicaEndpoint(cmd.isReadOnly(req.getArgs()), forceMasterEndpoint)
+      .send(request, decoder);
+  }
+
+  @Override
+  public ReadStream<Buffer> sendStreaming(Request request) {
+    final RequestImpl req = (RequestImpl) request;
+    final CommandImpl cmd = (CommandImpl) req.command();
+    final boolean forceMasterEndpoint = MASTER_ONLY_COMMANDS.contains(cmd);
+
+    return selectMasterOrReplicaEndpoint(cmd.isReadOnly(req.getArgs()), forceMasterEndpoint)
+      .sendStreaming(request);
+  }
+
+  @Override
+  public ReadStream<Response> sendStreamingElements(Request request) {
+    final RequestImpl req = (RequestImpl) request;
+    final CommandImpl cmd = (CommandImpl) req.command();
+    final boolean forceMasterEndpoint = MASTER_ONLY_COMMANDS.contains(cmd);
+
+    return selectMasterOrReplicaEndpoint(cmd.isReadOnly(req.getArgs()), forceMasterEndpoint)
+      .sendStreamingElements(request);
+  }
+
   @Override
   public Future<List<Response>> batch(List<Request> requests) {
     if (requests.isEmpty()) {
@@ -175,6 +207,34 @@ public class RedisReplicationConnection implements RedisConnection {
     return result;
   }
 
+  @Override
+  public boolean writeQueueFull() {
+    // a full connection calls the drain handler once it drains, stop at the first one so a single drain is due
+    if (master.writeQueueFull()) {
+      return true;
+    }
+
+    for (RedisConnection conn : replicas) {
+      if (conn != null && conn.writeQueueFull()) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  @Override
+  public RedisConnection drainHandler(@Nullable Handler<Void> handler) {
+    master.drainHandler(handler);
+
+    for (RedisConnection conn : replicas) {
+      if (conn != null) {
+        conn.drainHandler(handler);
+      }
+    }
+    return this;
+  }
+
   private PooledRedisConnection selectMasterOrReplicaEndpoint(boolean read, boolean forceMasterEndpoint) {
     if (forceMasterEndpoint) {
       return master;
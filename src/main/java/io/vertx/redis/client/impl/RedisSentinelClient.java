@@ -95,6 +95,7 @@ public class RedisSentinelClient extends BaseRedisClient implements Redis {
                 }
               }
             }
+            msg.release();
           });
 
         sentinel
@@ -232,6 +233,7 @@ public class RedisSentinelClient extends BaseRedisClient implements Redis {
             } else {
               final String rHost = response.get(0).toString();
               final Integer rPort = response.get(1).toInteger();
+              response.release();
               handler.handle(Future.succeededFuture(new RedisURI(uri, rHost.contains(":") ? "[" + rHost + "]" : rHost, rPort)));
             }
           })
@@ -258,6 +260,7 @@ public class RedisSentinelClient extends BaseRedisClient implements Redis {
             } else {
               Response replicaInfoArr = response.get(RANDOM.nextInt(response.size()));
               if ((replicaInfoArr.size() % 2) > 0) {
+                response.release();
                 handler.handle(Future.failedFuture("Corrupted response from the sentinel"));
               } else {
                 int port = 6379;
@@ -270,6 +273,7 @@ public class RedisSentinelClient extends BaseRedisClient implements Redis {
                 if (replicaInfoArr.containsKey("ip")) {
                   ip = replicaInfoArr.get("ip").toString();
                 }
+                response.release();
 
                 if (ip == null) {
                   handler.handle(Future.failedFuture("No IP found for a REPLICA node!"));
@@ -3,9 +3,12 @@ package io.vertx.redis.client.impl;
 import io.vertx.codegen.annotations.Nullable;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.redis.client.RedisConnection;
 import io.vertx.redis.client.Request;
 import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseDecoder;
 
 import java.util.List;
 
@@ -60,6 +63,21 @@ public class RedisSentinelConnection implements RedisConnection {
     return connection.send(command);
   }
 
+  @Override
+  public <T> Future<T> send(Request command, ResponseDecoder<T> decoder) {
+    return connection.send(command, decoder);
+  }
+
+  @Override
+  public ReadStream<Buffer> sendStreaming(Request command) {
+    return connection.sendStreaming(command);
+  }
+
+  @Override
+  public ReadStream<@Nullable Response> sendStreamingElements(Request command) {
+    return connection.sendStreamingElements(command);
+  }
+
   @Override
   public Future<List<@Nullable Response>> batch(List<Request> commands) {
     return connection.batch(commands);
@@ -75,4 +93,15 @@ public class RedisSentinelConnection implements RedisConnection {
   public boolean pendingQueueFull() {
     return connection.pendingQueueFull();
   }
+
+  @Override
+  public boolean writeQueueFull() {
+    return connection.writeQueueFull();
+  }
+
+  @Override
+  public RedisConnection drainHandler(@Nullable Handler<Void> handler) {
+    connection.drainHandler(handler);
+    return this;
+  }
 }
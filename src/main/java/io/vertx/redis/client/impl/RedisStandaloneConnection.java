@@ -1,29 +1,39 @@
 package io.vertx.redis.client.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.channel.EventLoop;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.internal.PlatformDependent;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.NoStackTraceThrowable;
 import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.impl.future.PromiseInternal;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.NetSocket;
+import io.vertx.core.net.impl.NetSocketInternal;
 import io.vertx.core.net.impl.pool.PoolConnector;
 import io.vertx.core.spi.metrics.ClientMetrics;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.core.tracing.TracingPolicy;
 import io.vertx.redis.client.*;
 import io.vertx.redis.client.impl.types.ErrorType;
 import io.vertx.redis.client.impl.types.Multi;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class RedisStandaloneConnection implements RedisConnectionInternal, ParserHandler {
 
@@ -32,6 +42,7 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
   private static final Logger LOG = LoggerFactory.getLogger(RedisStandaloneConnection.class);
 
   private static final ErrorType CONNECTION_CLOSED = ErrorType.create("CONNECTION_CLOSED");
+  private static final ErrorType TIMEOUT = ErrorType.create("TIMEOUT Command timed out");
 
   private final PoolConnector.Listener listener;
   // to be used for callbacks
@@ -39,14 +50,42 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
   // to be used for callbacks
   private final ContextInternal context;
   private final EventBus eventBus;
-  private final NetSocket netSocket;
+  private final NetSocketInternal netSocket;
   private final long expiresAt;
   // waiting: commands that have been sent but not answered
   // the queue is only accessed from the event loop
   private final ArrayQueue waiting;
+  // submissions from other threads, run in order on the event loop
+  private final Queue<Runnable> submissions = PlatformDependent.newMpscQueue();
+  // a drain of the submissions is scheduled
+  private final AtomicBoolean draining = new AtomicBoolean();
   private final RedisURI uri;
   private final ClientMetrics metrics;
   private final TracingPolicy tracingPolicy;
+  // the parser reads the raw network buffers, which bypass the inbound buffer of the socket, so pausing the socket
+  // alone does not stop their delivery
+  private final boolean zeroCopy;
+  // writes held while a streamed argument is written, so they are not interleaved with its content
+  // only accessed from the event loop, as all writes
+  private final Deque<Held> held = new ArrayDeque<>();
+  // auto pipelining: the amount of coalesced bytes that triggers a flush, 0 when writes are not coalesced
+  private final int pipeliningLimit;
+  // auto pipelining: the amount of coalesced writes that triggers a flush, 0 when only the bytes are counted
+  private final int pipeliningCommands;
+  // the default reply timeout in milliseconds, 0 when replies are not timed out
+  private final long commandTimeout;
+  private final boolean closeOnCommandTimeout;
+  // requests held while the waiting queue is full, 0 when requests fail at once
+  private final int maxPendingRequests;
+  // to restore the authentication of a recycled connection
+  private final RedisConnectOptions connectOptions;
+  // parked: requests that do not fit in the waiting queue yet, run in order as replies free slots
+  // only accessed from the event loop, as the waiting queue
+  private final Deque<Parked> parked = new ArrayDeque<>();
+  // the slots taken by the parked requests, only accessed from the event loop
+  private int parkedSlots;
+  // the slots taken by the waiting and the parked requests, updated on the event loop and read from any thread
+  private volatile int pendingSlots;
 
   // state
   private Handler<Throwable> onException;
@@ -55,19 +94,52 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
   private Runnable onEvict;
   private boolean closed = false;
   private boolean tainted = false;
+  // the connection failed or ended, its queues have been cleaned up
+  private boolean terminated = false;
+  // the session state changed by the user, pub/sub is only restored by a RESET
+  private boolean pubSub = false;
+  private boolean selected = false;
+  private boolean authenticated = false;
+  // the requests restoring the session state, written before the next request of a recycled connection
+  private volatile List<Request> restore;
+  // the handshake requests written again after a RESET, null when the server does not support it. Set by the
+  // handshake, before the connection is valid
+  private List<Request> handshake;
+  // the restore requests are in flight, the next requests are parked until they succeed
+  private boolean restoring = false;
+  // a streamed argument is being written
+  private boolean streaming = false;
+  // the requests coalesced in this event loop iteration, and the future of their write
+  private CompositeByteBuf pending;
+  private int pendingCommands;
+  private Promise<Void> pendingWrite;
+  // writeQueueFull() returned true, the drain handler is due
+  private final AtomicBoolean drainNeeded = new AtomicBoolean();
+  private Handler<Void> onDrain;
+  // the streamed argument waiting for the socket write queue to drain, only accessed from the event loop
+  private Handler<Void> streamDrain;
 
-  public RedisStandaloneConnection(VertxInternal vertx, ContextInternal context, PoolConnector.Listener connectionListener, NetSocket netSocket, PoolOptions options, int maxWaitingHandlers, RedisURI uri, ClientMetrics metrics, TracingPolicy tracingPolicy) {
+  public RedisStandaloneConnection(VertxInternal vertx, ContextInternal context, PoolConnector.Listener connectionListener, NetSocket netSocket, PoolOptions options, RedisConnectOptions connectOptions, RedisURI uri, ClientMetrics metrics, TracingPolicy tracingPolicy) {
     //System.out.println("<ctor>#" + this.hashCode());
     this.vertx = vertx;
     this.context = context;
     this.listener = connectionListener;
     this.eventBus = vertx.eventBus();
-    this.netSocket = netSocket;
-    this.waiting = new ArrayQueue(maxWaitingHandlers);
+    this.netSocket = (NetSocketInternal) netSocket;
+    this.waiting = new ArrayQueue(connectOptions.getMaxWaitingHandlers());
+    this.pipeliningLimit = connectOptions.isAutoPipelining() ? connectOptions.getAutoPipeliningLimit() : 0;
+    this.pipeliningCommands = connectOptions.getAutoPipeliningCommands();
+    this.commandTimeout = connectOptions.getCommandTimeout();
+    this.closeOnCommandTimeout = connectOptions.isCloseOnCommandTimeout();
+    this.maxPendingRequests = connectOptions.getMaxPendingRequests();
+    this.connectOptions = connectOptions;
     this.expiresAt = options.getRecycleTimeout() == -1 ? -1 : System.currentTimeMillis() + options.getRecycleTimeout();
     this.uri = uri;
     this.metrics = metrics;
     this.tracingPolicy = tracingPolicy;
+    this.zeroCopy = connectOptions.isZeroCopy();
+    // the socket drains both the streamed arguments and the producers
+    this.netSocket.drainHandler(v -> drained());
   }
 
   synchronized void setValid() {
@@ -76,6 +148,10 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
     // tainted will be reset, as a select during the handshake could have
     // changed the state
     tainted = false;
+    pubSub = false;
+    selected = false;
+    authenticated = false;
+    restore = null;
   }
 
   @Override
@@ -109,9 +185,28 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
   @Override
   public boolean pendingQueueFull() {
     //System.out.println("pendingQueueFull()#" + this.hashCode());
-    synchronized (waiting) {
-      return waiting.isFull();
+    // read outside of the event loop, this is only a hint
+    return pendingSlots >= waiting.capacity();
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    // read outside of the event loop, this is only a hint. Parked requests take more slots than are free, so the
+    // count exceeds the capacity as long as any is parked
+    if (pendingSlots >= waiting.capacity() || netSocket.writeQueueFull()) {
+      if (drainNeeded.compareAndSet(false, true)) {
+        // the queues could have drained before the flag was set, later calls wait for the same drain
+        submit(this::notifyDrain);
+      }
+      return true;
     }
+    return false;
+  }
+
+  @Override
+  public RedisConnection drainHandler(Handler<Void> handler) {
+    this.onDrain = handler;
+    return this;
   }
 
   @Override
@@ -145,6 +240,9 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
   public RedisConnection pause() {
     //System.out.println("pause()#" + this.hashCode());
     netSocket.pause();
+    if (zeroCopy) {
+      autoRead(false);
+    }
     return this;
   }
 
@@ -152,6 +250,9 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
   public RedisConnection resume() {
     //System.out.println("resume()#" + this.hashCode());
     netSocket.resume();
+    if (zeroCopy) {
+      autoRead(true);
+    }
     return this;
   }
 
@@ -159,9 +260,19 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
   public RedisConnection fetch(long size) {
     //System.out.println("fetch()#" + this.hashCode());
     netSocket.fetch(size);
+    if (zeroCopy && size > 0) {
+      autoRead(true);
+    }
     return this;
   }
 
+  /**
+   * Stops or restarts the reads of the channel, the messages of a read already in progress are still delivered.
+   */
+  private void autoRead(boolean autoRead) {
+    netSocket.channelHandlerContext().channel().config().setAutoRead(autoRead);
+  }
+
   /**
    * Checks if an executed command has tainted the connection. A connection is tainted if it changes the default state,
    * for example, when a connection enters pub sub mode, or specific features are activated such as changing a database
@@ -172,8 +283,15 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
   private void taintCheck(CommandImpl cmd) {
     //System.out.println("taintCheck()#" + this.hashCode());
     if (listener != null) {
-      if (cmd.isPubSub() || Command.SELECT.equals(cmd) || Command.AUTH.equals(cmd)) {
+      if (cmd.isPubSub()) {
+        tainted = true;
+        pubSub = true;
+      } else if (Command.SELECT.equals(cmd)) {
         tainted = true;
+        selected = true;
+      } else if (Command.AUTH.equals(cmd)) {
+        tainted = true;
+        authenticated = true;
       }
     }
   }
@@ -181,7 +299,6 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
   @Override
   public Future<Response> send(final Request request) {
     //System.out.println("send()#" + this.hashCode());
-    final Promise<Response> promise;
 
     if (closed) {
       throw new IllegalStateException("Connection is closed");
@@ -191,34 +308,31 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
       return Future.failedFuture("Redis command is not valid, check https://redis.io/commands");
     }
 
+    // create a new promise bound to the caller not
+    // the instance of this object (a.k.a. "context")
+    final Promise<Response> promise = vertx.promise();
+    submit(() -> send0((RequestImpl) request, promise));
+    return promise.future();
+  }
+
+  private void send0(final RequestImpl request, final Promise<Response> promise) {
     final CommandImpl cmd = (CommandImpl) request.command();
+    final boolean voidCmd = cmd.isPubSub();
+    // void commands do not take a slot, but keep their order
+    enqueue(voidCmd ? 0 : 1, () -> send1(request, promise, voidCmd), promise::tryFail);
+  }
 
+  private void send1(final RequestImpl request, final Promise<Response> promise, final boolean voidCmd) {
     // tag this connection as tainted if needed
-    context.execute(cmd, this::taintCheck);
+    taintCheck((CommandImpl) request.command());
 
-    final boolean voidCmd = cmd.isPubSub();
-    // encode the message to a buffer
-    final Buffer message = ((RequestImpl) request).encode();
     // offer the handler to the waiting queue if not void command
     if (!voidCmd) {
-      // we might have switch thread/context
-      synchronized (waiting) {
-        if (waiting.isFull()) {
-          return Future.failedFuture("Redis waiting Queue is full");
-        }
-        // create a new promise bound to the caller not
-        // the instance of this object (a.k.a. "context")
-        promise = vertx.promise();
-        waiting.offer(promise);
-      }
-    } else {
-      // create a new promise bound to the caller not
-      // the instance of this object (a.k.a. "context")
-      promise = vertx.promise();
+      waiting.offer(timed(promise, request.getTimeout(commandTimeout)));
     }
     // write to the socket
     try {
-      netSocket.write(message)
+      write(request)
         // if the write fails, this connection enters a unknown state
         // which means it should be terminated
         .onFailure(this::fail)
@@ -237,10 +351,102 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
     } catch (RuntimeException err) {
       // is the socket in a broken state?
       context.execute(err, this::fail);
-      promise.fail(err);
+      promise.tryFail(err);
     }
+  }
 
-    return promise.future();
+  @Override
+  public <T> Future<T> send(final Request request, final ResponseDecoder<T> decoder) {
+    if (closed) {
+      throw new IllegalStateException("Connection is closed");
+    }
+
+    if (!((RequestImpl) request).valid()) {
+      return Future.failedFuture("Redis command is not valid, check https://redis.io/commands");
+    }
+
+    final CommandImpl cmd = (CommandImpl) request.command();
+
+    if (cmd.isPubSub()) {
+      // pub/sub replies are not correlated to the request
+      return Future.failedFuture("PubSub command cannot be decoded");
+    }
+
+    // create a new promise bound to the caller not
+    // the instance of this object (a.k.a. "context")
+    final DecodedReply<T> reply = new DecodedReply<>(vertx.promise(), decoder);
+    submit(() -> enqueue(1, () -> {
+      // tag this connection as tainted if needed
+      taintCheck(cmd);
+
+      waiting.offer(timed(reply, ((RequestImpl) request).getTimeout(commandTimeout)));
+      // write to the socket
+      try {
+        write((RequestImpl) request)
+          // if the write fails, this connection enters a unknown state
+          // which means it should be terminated
+          .onFailure(this::fail);
+      } catch (RuntimeException err) {
+        // is the socket in a broken state?
+        context.execute(err, this::fail);
+        reply.fail(err);
+      }
+    }, reply::fail));
+
+    return reply.future();
+  }
+
+  @Override
+  public ReadStream<Buffer> sendStreaming(final Request request) {
+    // the stream is bound to the caller not
+    // the instance of this object (a.k.a. "context")
+    return stream(request, new BulkReplyStream(vertx.getOrCreateContext(), this));
+  }
+
+  @Override
+  public ReadStream<Response> sendStreamingElements(final Request request) {
+    // the stream is bound to the caller not
+    // the instance of this object (a.k.a. "context")
+    return stream(request, new ElementReplyStream(vertx.getOrCreateContext(), this));
+  }
+
+  private <T> ReadStream<T> stream(final Request request, final ReplyStream<T> stream) {
+    if (closed) {
+      throw new IllegalStateException("Connection is closed");
+    }
+
+    if (!((RequestImpl) request).valid()) {
+      stream.fail(new NoStackTraceThrowable("Redis command is not valid, check https://redis.io/commands"));
+      return stream;
+    }
+
+    final CommandImpl cmd = (CommandImpl) request.command();
+
+    if (cmd.isPubSub()) {
+      // pub/sub replies are not correlated to the request
+      stream.fail(new NoStackTraceThrowable("PubSub command cannot be streamed"));
+      return stream;
+    }
+
+    submit(() -> enqueue(1, () -> {
+      // tag this connection as tainted if needed
+      taintCheck(cmd);
+
+      waiting.offer(stream);
+      // write to the socket
+      try {
+        write((RequestImpl) request)
+          // if the write fails, this connection enters a unknown state
+          // which means it should be terminated
+          .onFailure(this::fail);
+      } catch (RuntimeException err) {
+        // is the socket in a broken state?
+        context.execute(err, this::fail);
+        stream.fail(err);
+      }
+    }, stream::fail));
+
+    return stream;
   }
 
   @Override
@@ -255,125 +461,433 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
       LOG.debug("Empty batch");
       return Future.succeededFuture(Collections.emptyList());
     } else {
-      // create a new promise bound to the caller not
-      // the instance of this object (a.k.a. "context")
-      final Promise<List<Response>> promise = vertx.promise();
-
-      // will re-encode the handler into a list of promises
-      final List<Promise<Response>> callbacks = new ArrayList<>(commands.size());
-      final Response[] replies = new Response[commands.size()];
-      final AtomicInteger count = new AtomicInteger(commands.size());
-      final StringBuilder errorMsg = new StringBuilder();
-
-      // encode the message to a single buffer
-      final Buffer messages = Buffer.buffer();
-
-      for (int i = 0; i < commands.size(); i++) {
-        final int index = i;
-        final RequestImpl req = (RequestImpl) commands.get(index);
-        final CommandImpl cmd = (CommandImpl) req.command();
+      for (Request command : commands) {
+        final RequestImpl req = (RequestImpl) command;
 
         if (!req.valid()) {
           return Future.failedFuture("Redis command is not valid, check https://redis.io/commands");
         }
 
-        if (cmd.isPubSub()) {
+        if (((CommandImpl) req.command()).isPubSub()) {
           // mixing pubSub cannot be used on a one-shot operation
           return Future.failedFuture("PubSub command in batch not allowed");
         }
-        // encode to the single buffer
-        req.encode(messages);
-        // tag this connection as tainted if needed
-        taintCheck(cmd);
-        // unwrap the handler into a single handler
-
-        Promise<Response> p = vertx.promise();
-
-        p.future().onComplete(command -> {
-          if (command.failed()) {
-            if (errorMsg.length() > 0) {
-              errorMsg.append(System.lineSeparator());
-            }
-            String cause = null;
-            if (command.cause() != null) {
-              cause = command.cause().toString();
-              if (cause != null) {
-                if (cause.startsWith("ERR ")) {
-                  // strip the ERR prefix
-                  cause = cause.substring(4);
-                }
-              }
-            }
-            // the message rewrite is just to comply to the redis error message contract
-            errorMsg.append("ERR [").append(index).append("] ").append(cause);
-          } else {
-            // set the reply
-            replies[index] = command.result();
-          }
 
-          if (count.decrementAndGet() == 0) {
-            // all results have arrived
-            boolean resolved = errorMsg.length() > 0 ?
-              promise.tryFail(ErrorType.create(errorMsg.toString())) :
-              promise.tryComplete(Arrays.asList(replies));
+        if (req.isStreamed()) {
+          // the batch is written as a single message
+          return Future.failedFuture("Streamed argument in batch not allowed");
+        }
+      }
 
-            if (!resolved) {
-              // if the promise fail (e.g.: an client error forced a cleanup)
-              // call the exception handler if any
-              if (onException != null) {
-                context.execute(new IllegalStateException("Result is already complete: [" + promise + "]"), onException);
-              }
-            }
-          }
-        });
+      // a single handler for all the replies, bound to the caller not
+      // the instance of this object (a.k.a. "context")
+      final BatchReply reply = new BatchReply(vertx.promise(), commands.size());
+
+      submit(() -> enqueue(reply.size(), () -> {
+        long timeout = 0;
+        for (Request command : commands) {
+          // tag this connection as tainted if needed
+          taintCheck((CommandImpl) command.command());
+          // the batch waits for its slowest command
+          timeout = Math.max(timeout, ((RequestImpl) command).getTimeout(commandTimeout));
+        }
+        final Object slot = timed(reply, timeout);
+        for (int i = 0; i < reply.size(); i++) {
+          // the handler takes a slot per reply
+          waiting.offer(slot);
+        }
+        // write to the socket
+        try {
+          // encode the messages with a single allocation
+          write(RequestImpl.encode(netSocket.channelHandlerContext().alloc(), commands))
+            // if the write fails, this connection enters an unknown state
+            // which means it should be terminated
+            .onFailure(this::fail);
+        } catch (RuntimeException err) {
+          // is the socket in a broken state?
+          context.execute(err, this::fail);
+          reply.fail(err);
+        }
+      }, reply::fail));
+
+      return reply.future();
+    }
+  }
+
+  /**
+   * Runs the task if the waiting queue has the slots it needs and no other request is parked before it. Otherwise,
+   * the task is parked until replies free enough slots, or rejected when {@code maxPendingRequests} are parked. While
+   * the session is being restored, tasks are parked whatever the limit, they wait for a single round trip.
+   */
+  private void enqueue(int slots, Runnable task, Handler<Throwable> reject) {
+    // the session of a recycled connection is restored before its next request
+    restoreSession();
+
+    if (!restoring && parked.isEmpty() && waiting.freeSlots() >= slots) {
+      task.run();
+    } else if ((restoring || parked.size() < maxPendingRequests) && slots <= waiting.capacity()) {
+      parked.add(new Parked(slots, task, reject));
+      parkedSlots += slots;
+    } else {
+      reject.handle(new NoStackTraceThrowable("Redis waiting Queue is full"));
+    }
+    countSlots();
+  }
 
-        callbacks.add(index, p);
+  /**
+   * Runs the parked requests that fit in the slots freed by a reply.
+   */
+  private void unpark() {
+    Parked next;
+    while (!restoring && (next = parked.peek()) != null && waiting.freeSlots() >= next.slots) {
+      parked.poll();
+      parkedSlots -= next.slots;
+      next.task.run();
+    }
+    countSlots();
+    notifyDrain();
+  }
+
+  /**
+   * Publishes the slots taken by the waiting and the parked requests, for the producers on other threads.
+   */
+  private void countSlots() {
+    pendingSlots = waiting.capacity() - waiting.freeSlots() + parkedSlots;
+  }
+
+  /**
+   * Registers the handler resuming a streamed argument, on the event loop where the socket drains.
+   */
+  private void awaitDrain(Handler<Void> handler) {
+    // the stream paused itself on its own thread, the socket may have drained since then
+    if (netSocket.writeQueueFull()) {
+      streamDrain = handler;
+    } else {
+      handler.handle(null);
+    }
+  }
+
+  private void drained() {
+    final Handler<Void> handler = streamDrain;
+    if (handler != null) {
+      streamDrain = null;
+      handler.handle(null);
+    }
+    notifyDrain();
+  }
+
+  /**
+   * Calls the drain handler once requests can be sent again, if a producer was told to wait.
+   */
+  private void notifyDrain() {
+    if (drainNeeded.get() && !waiting.isFull() && parked.isEmpty() && !netSocket.writeQueueFull()
+      && drainNeeded.compareAndSet(true, false)) {
+      final Handler<Void> handler = onDrain;
+      if (handler != null) {
+        context.execute(null, handler);
       }
+    }
+  }
 
-      synchronized (waiting) {
-        // we might have switch thread/context
-        // this means the check needs to be performed again
-        if (waiting.freeSlots() < callbacks.size()) {
-          return Future.failedFuture("Redis waiting Queue is full");
-        }
-        // offer all handlers to the waiting queue
-        for (Promise<Response> callback : callbacks) {
-          waiting.offer(callback);
+  /**
+   * Sends the requests in a single write, each request completes its own future. This is used for the handshake, the
+   * requests are not checked for taint as the handshake state is the default state of the connection.
+   */
+  List<Future<Response>> pipeline(List<Request> requests) {
+    final List<Promise<Response>> promises = new ArrayList<>(requests.size());
+    final List<Future<Response>> replies = new ArrayList<>(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      final Promise<Response> promise = vertx.promise();
+      promises.add(promise);
+      replies.add(promise.future());
+    }
+
+    submit(() -> pipeline(requests, promises));
+    return replies;
+  }
+
+  private void pipeline(List<Request> requests, List<Promise<Response>> promises) {
+    if (waiting.freeSlots() < promises.size()) {
+      final NoStackTraceThrowable err = new NoStackTraceThrowable("Redis waiting Queue is full");
+      promises.forEach(promise -> promise.tryFail(err));
+      return;
+    }
+    for (Promise<Response> promise : promises) {
+      waiting.offer(timed(promise, commandTimeout));
+    }
+    countSlots();
+    // write to the socket
+    try {
+      write(RequestImpl.encode(netSocket.channelHandlerContext().alloc(), requests))
+        // if the write fails, this connection enters an unknown state
+        // which means it should be terminated
+        .onFailure(this::fail);
+    } catch (RuntimeException err) {
+      // is the socket in a broken state?
+      context.execute(err, this::fail);
+      promises.forEach(promise -> promise.tryFail(err));
+    }
+  }
+
+  /**
+   * Writes the requests restoring the session state, if any, ahead of the next request. The next requests are parked
+   * until all the replies succeed. If one of them fails the state is unknown, the parked requests fail with its error
+   * and the connection is closed.
+   */
+  private void restoreSession() {
+    final List<Request> requests = restore;
+    if (requests == null) {
+      return;
+    }
+    restore = null;
+    restoring = true;
+
+    final List<Promise<Response>> promises = new ArrayList<>(requests.size());
+    final List<Future<Response>> replies = new ArrayList<>(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      final Promise<Response> promise = Promise.promise();
+      promises.add(promise);
+      replies.add(promise.future());
+    }
+
+    // completed on the event loop, by the last reply or the cleanup of the queue
+    Future.join(replies).onComplete(ar -> {
+      for (Future<Response> reply : replies) {
+        if (reply.succeeded() && reply.result() != null) {
+          reply.result().release();
         }
       }
-      // write to the socket
-      try {
-        netSocket.write(messages)
-          // if the write fails, this connection enters an unknown state
-          // which means it should be terminated
-          .onFailure(this::fail);
-      } catch (RuntimeException err) {
-        // is the socket in a broken state?
-        context.execute(err, this::fail);
-        promise.fail(err);
+      if (ar.succeeded()) {
+        restoring = false;
+        unpark();
+      } else {
+        LOG.warn("Failed to restore the connection state, closing it", ar.cause());
+        fail(ar.cause());
+        forceClose();
+      }
+    });
+    pipeline(requests, promises);
+  }
+
+  /**
+   * Wraps the handler to time out its reply, if a timeout is set.
+   */
+  private Object timed(Object handler, long timeout) {
+    if (timeout <= 0) {
+      return handler;
+    }
+    final TimedReply timed = new TimedReply(handler, this);
+    TimerWheel.get(context.nettyEventLoop()).schedule(timed, timeout);
+    return timed;
+  }
+
+  /**
+   * Fails the handler of an expired reply, its slot stays in the waiting queue so the reply is discarded when it
+   * arrives, unless the connection is closed on timeouts.
+   */
+  @SuppressWarnings("unchecked")
+  void timeout(TimedReply timed) {
+    final Object handler = timed.handler;
+    if (handler instanceof DecodedReply) {
+      ((DecodedReply<?>) handler).fail(TIMEOUT);
+    } else if (handler instanceof BatchReply) {
+      ((BatchReply) handler).fail(TIMEOUT);
+    } else {
+      ((Promise<Response>) handler).tryFail(TIMEOUT);
+    }
+
+    if (closeOnCommandTimeout) {
+      // the other pending commands fail once the socket is closed
+      forceClose();
+    }
+  }
+
+  /**
+   * Runs the task on the event loop of this connection, where the waiting queue and the socket writes are confined.
+   * Tasks from the event loop run at once, tasks from other threads are handed off through a lock-free queue which
+   * is drained in a single event loop task, so the order of the submissions of each thread is kept.
+   */
+  private void submit(Runnable task) {
+    final EventLoop eventLoop = context.nettyEventLoop();
+    if (eventLoop.inEventLoop()) {
+      task.run();
+      return;
+    }
+    submissions.add(task);
+    if (draining.compareAndSet(false, true)) {
+      eventLoop.execute(this::drain);
+    }
+  }
+
+  private void drain() {
+    do {
+      Runnable task;
+      while ((task = submissions.poll()) != null) {
+        task.run();
       }
+      draining.set(false);
+      // a submission could have been added after the last poll, without scheduling a new drain
+    } while (!submissions.isEmpty() && draining.compareAndSet(false, true));
+  }
+
+  /**
+   * Encodes the request straight into a direct buffer from the channel allocator, which is released once written.
+   */
+  private Future<Void> write(RequestImpl request) {
+    if (request.isStreamed()) {
+      return writeStreamed(request);
+    }
+    return write(request.encode(netSocket.channelHandlerContext().alloc()));
+  }
+
+  private Future<Void> write(ByteBuf message) {
+    if (streaming) {
+      // written once the stream is complete
+      final Promise<Void> promise = Promise.promise();
+      held.add(new Held(() -> write(message).onComplete(promise), promise, message));
+      return promise.future();
+    }
+    if (pipeliningLimit == 0) {
+      return netSocket.writeMessage(message);
+    }
+    return coalesce(message);
+  }
+
+  /**
+   * Appends the message to the requests written at the end of this event loop iteration, the order of the writes
+   * follows the order of the waiting queue as both are done in the same order.
+   */
+  private Future<Void> coalesce(ByteBuf message) {
+    if (pending == null) {
+      pending = netSocket.channelHandlerContext().alloc().compositeDirectBuffer(Integer.MAX_VALUE);
+      pendingWrite = Promise.promise();
+      // runs after the current event loop task
+      netSocket.channelHandlerContext().executor().execute(this::flush);
+    }
+    pending.addComponent(true, message);
+    pendingCommands++;
+
+    final Future<Void> written = pendingWrite.future();
+    if (pending.readableBytes() >= pipeliningLimit || (pipeliningCommands > 0 && pendingCommands >= pipeliningCommands)) {
+      flush();
+    }
+    return written;
+  }
 
+  /**
+   * Writes the coalesced requests, if any.
+   */
+  private void flush() {
+    if (pending != null) {
+      netSocket.writeMessage(pending).onComplete(pendingWrite);
+      pending = null;
+      pendingWrite = null;
+      pendingCommands = 0;
+    }
+  }
+
+  /**
+   * Writes a request with streamed arguments, other writes are held until all the streams have been written.
+   */
+  private Future<Void> writeStreamed(RequestImpl request) {
+    if (streaming) {
+      final Promise<Void> promise = Promise.promise();
+      held.add(new Held(() -> writeStreamed(request).onComplete(promise), promise, null));
       return promise.future();
     }
+    // the coalesced requests come first
+    flush();
+    streaming = true;
+
+    final Future<Void> written;
+    try {
+      written = writeParts(request.encodeParts(netSocket.channelHandlerContext().alloc()), 0);
+    } catch (RuntimeException e) {
+      endStreaming();
+      throw e;
+    }
+    // the stream completes on its own context
+    return written.onComplete(ar -> submit(() -> {
+      if (ar.succeeded()) {
+        endStreaming();
+      } else {
+        abortStreaming(ar.cause());
+      }
+    }));
+  }
+
+  private Future<Void> writeParts(List<Object> parts, int from) {
+    Future<Void> last = Future.succeededFuture();
+    for (int i = from; i < parts.size(); i++) {
+      final Object part = parts.get(i);
+      if (part instanceof ByteBuf) {
+        last = netSocket.writeMessage(part);
+        continue;
+      }
+      final int next = i + 1;
+      return ((StreamedArgument) part)
+        .writeTo(netSocket, handler -> submit(() -> awaitDrain(handler)))
+        .compose(
+          v -> writeParts(parts, next),
+          err -> {
+            // the parts after the stream are not written
+            for (int j = next; j < parts.size(); j++) {
+              ReferenceCountUtil.release(parts.get(j));
+            }
+            return Future.failedFuture(err);
+          });
+    }
+    return last;
+  }
+
+  /**
+   * Ends the write of a streamed request, and runs the writes held in the meantime, until one of them streams again.
+   */
+  private void endStreaming() {
+    streaming = false;
+    Held next;
+    while (!streaming && (next = held.poll()) != null) {
+      next.write.run();
+    }
+  }
+
+  /**
+   * Closes the connection after a streamed request could not be fully written. The server reads anything written
+   * after it as the rest of its payload, so the held writes are rejected instead.
+   */
+  private void abortStreaming(Throwable err) {
+    // fail first, so the held writes do not fail the connection again
+    fail(err);
+    forceClose();
+    rejectHeld(err);
+  }
+
+  private void rejectHeld(Throwable err) {
+    Held next;
+    while ((next = held.poll()) != null) {
+      if (next.message != null) {
+        ReferenceCountUtil.release(next.message);
+      }
+      next.promise.tryFail(err);
+    }
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public void handle(Response reply) {
     //System.out.println("handle()#" + this.hashCode());
-    final boolean empty;
-    final Promise<Response> req;
+    // pushed messages are out of band, they do not reply to the waiting requests
+    final boolean push = reply != null && reply.type() == ResponseType.PUSH;
+    final boolean empty = waiting.isEmpty();
+    Object req = empty || push ? null : waiting.poll();
 
-    synchronized (waiting) {
-      empty = waiting.isEmpty();
-      if (!empty) {
-        req = waiting.poll();
-      } else {
-        req = null;
-      }
+    if (req != null) {
+      // the freed slot can take a parked request
+      unpark();
     }
 
     // pub/sub mode
-    if ((reply != null && reply.type() == ResponseType.PUSH) || empty) {
+    if (push || empty) {
       if (onMessage != null) {
         context.execute(reply, onMessage);
       } else {
@@ -390,6 +904,7 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
                 .put("value", new JsonObject()
                   .put("channel", reply.get(1).toString())
                   .put("message", reply.get(2).toString())));
+            reply.release();
             return;
           }
 
@@ -403,29 +918,68 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
                   .put("pattern", reply.get(1).toString())
                   .put("channel", reply.get(2).toString())
                   .put("message", reply.get(3).toString())));
+            reply.release();
             return;
           }
           // fallback will just go to the log
         }
         LOG.warn("No handler waiting for message: " + reply);
+        if (reply != null) {
+          reply.release();
+        }
       }
       return;
     }
 
-    if (req != null) {
+    if (req instanceof TimedReply) {
+      final TimedReply timed = (TimedReply) req;
+      if (timed.isExpired()) {
+        // the request has already failed
+        if (reply != null) {
+          reply.release();
+        }
+        return;
+      }
+      req = timed.handler;
+      if (!(req instanceof BatchReply) || ((BatchReply) req).isLast()) {
+        timed.cancel();
+      }
+    }
+
+    if (req instanceof ReplyStream) {
+      // the stream handles the terminal reply itself
+      ((ReplyStream<?>) req).complete(reply);
+    } else if (req instanceof BatchReply) {
+      if (!((BatchReply) req).complete(reply)) {
+        // call the exception handler if any
+        if (onException != null) {
+          context.execute(new IllegalStateException("Result is already complete: [" + req + "]"), onException);
+        }
+      }
+    } else if (req instanceof DecodedReply) {
+      // the reply should have been notified to the decoder
+      ((DecodedReply<?>) req).fail(new IllegalStateException("Reply was not decoded: " + reply));
+      if (reply != null) {
+        reply.release();
+      }
+    } else if (req != null) {
+      final Promise<Response> promise = (Promise<Response>) req;
       final boolean resolved;
       if (reply == null) {
         // special case (nulls are always a success)
         // the reason is that nil is only a valid value for
         // bulk or multi
-        resolved = req.tryComplete();
+        resolved = promise.tryComplete();
       } else {
         resolved = reply.type() == ResponseType.ERROR ?
-          req.tryFail((ErrorType) reply) :
-          req.tryComplete(reply);
+          promise.tryFail((ErrorType) reply) :
+          promise.tryComplete(reply);
       }
 
       if (!resolved) {
+        if (reply != null) {
+          reply.release();
+        }
         // call the exception handler if any
         if (onException != null) {
           context.execute(new IllegalStateException("Result is already complete: [" + req + "]"), onException);
@@ -434,17 +988,76 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
 
     } else {
       LOG.error("No handler waiting for message: " + reply);
+      if (reply != null) {
+        reply.release();
+      }
+    }
+  }
+
+  @Override
+  public Handler<Buffer> bulkStream() {
+    final Object req = waiting.peek();
+    // only streams that asked for it receive the payload in chunks
+    return req instanceof BulkReplyStream ? (BulkReplyStream) req : null;
+  }
+
+  @Override
+  public Handler<Response> multiStream() {
+    final Object req = waiting.peek();
+    // only streams that asked for it receive the elements one by one
+    return req instanceof ElementReplyStream ? (ElementReplyStream) req : null;
+  }
+
+  @Override
+  public ResponseDecoder<?> decoder() {
+    Object req = waiting.peek();
+    if (req instanceof TimedReply) {
+      // an expired reply is discarded as any other reply
+      req = ((TimedReply) req).isExpired() ? null : ((TimedReply) req).handler;
+    }
+    return req instanceof DecodedReply ? (DecodedReply<?>) req : null;
+  }
+
+  @Override
+  public void decoded(ErrorType failure) {
+    //System.out.println("decoded()#" + this.hashCode());
+    Object req = waiting.poll();
+    // the freed slot can take a parked request
+    unpark();
+
+    if (req instanceof TimedReply) {
+      final TimedReply timed = (TimedReply) req;
+      if (timed.isExpired()) {
+        // the request has already failed
+        return;
+      }
+      timed.cancel();
+      req = timed.handler;
+    }
+
+    if (req instanceof DecodedReply) {
+      if (!((DecodedReply<?>) req).complete(failure)) {
+        // call the exception handler if any
+        if (onException != null) {
+          context.execute(new IllegalStateException("Result is already complete: [" + req + "]"), onException);
+        }
+      }
+    } else {
+      LOG.error("No decoder waiting for message");
     }
   }
 
   public synchronized void end(Void v) {
     //System.out.println("end()#" + this.hashCode());
-    assert !closed;
-    closed = true;
-    // evict this connection from the pool
-    evict();
-    // clean up the pending queue
-    cleanupQueue(CONNECTION_CLOSED);
+    // the socket is closed after a failure, which already cleaned up
+    if (!terminated) {
+      terminated = true;
+      closed = true;
+      // evict this connection from the pool
+      evict();
+      // clean up the pending queue
+      submit(() -> cleanupQueue(CONNECTION_CLOSED));
+    }
     // call the end handler if any
     if (onEnd != null) {
       context.execute(v, onEnd);
@@ -454,14 +1067,18 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
   @Override
   public synchronized void fail(Throwable t) {
     //System.out.println("fail()#" + this.hashCode());
-    assert !closed;
+    if (terminated) {
+      // e.g.: the writes held behind a failed stream
+      return;
+    }
+    terminated = true;
     closed = true;
     // evict this connection from the pool
     evict();
     // if there are still "on going" requests
     // these are all cancelled with the given
     // throwable
-    cleanupQueue(t);
+    submit(() -> cleanupQueue(t));
     // call the exception handler if any
     if (onException != null) {
       context.execute(t, onException);
@@ -475,15 +1092,70 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
     if (closed) {
       return false;
     }
-    // cannot reset if connection is tainted (custom DB/AUTH/PUBSUB)
-    if (tainted) {
+    if (!tainted) {
+      return true;
+    }
+    // the state can be restored by compensating commands (custom DB/AUTH), the PUBSUB mode only by a RESET
+    final List<Request> requests = pubSub ? resetRequests() : restoreRequests();
+    if (requests == null) {
       evict();
       forceClose();
       return false;
     }
+    restore = requests;
+    // the restore requests are written before any other request
+    tainted = false;
+    pubSub = false;
+    selected = false;
+    authenticated = false;
     return true;
   }
 
+  /**
+   * Sets the handshake requests, which restore the connection after a {@code RESET}. Only called when the server
+   * supports it, Redis 6.2 or later.
+   */
+  void resettable(List<Request> handshake) {
+    this.handshake = handshake;
+  }
+
+  /**
+   * The requests leaving the subscriptions, {@code null} if the server does not support {@code RESET}. It also resets
+   * the protocol, the authentication and the database, so the handshake is written again after it.
+   */
+  private List<Request> resetRequests() {
+    if (handshake == null) {
+      return null;
+    }
+    final List<Request> requests = new ArrayList<>(handshake.size() + 1);
+    requests.add(Request.cmd(Command.RESET));
+    requests.addAll(handshake);
+    return requests;
+  }
+
+  /**
+   * The requests restoring the authentication and database of the handshake, {@code null} if they cannot be restored.
+   */
+  private List<Request> restoreRequests() {
+    final List<Request> requests = new ArrayList<>(2);
+    if (authenticated) {
+      final String password = uri.password() != null ? uri.password() : connectOptions.getPassword();
+      if (password == null) {
+        // the default user cannot be restored without its password
+        return null;
+      }
+      final Request auth = Request.cmd(Command.AUTH);
+      if (uri.user() != null) {
+        auth.arg(uri.user());
+      }
+      requests.add(auth.arg(password));
+    }
+    if (selected) {
+      requests.add(Request.cmd(Command.SELECT).arg(uri.select() == null ? 0 : uri.select()));
+    }
+    return requests;
+  }
+
   private void evict() {
     //System.out.println("evict()#" + this.hashCode());
     // evict this connection from the pool
@@ -495,24 +1167,57 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
     }
   }
 
-  private synchronized void cleanupQueue(Throwable t) {
+  private void cleanupQueue(Throwable t) {
     //System.out.println("cleanupQueue()#" + this.hashCode());
-    Promise<Response> req;
-    synchronized (waiting) {
-      while ((req = waiting.poll()) != null) {
-        if (req instanceof PromiseInternal) {
-          if (((PromiseInternal<?>) req).isComplete()) {
-            // skip if already resolved
-            continue;
-          }
+    Object req;
+    while ((req = waiting.poll()) != null) {
+      if (req instanceof TimedReply) {
+        final TimedReply timed = (TimedReply) req;
+        timed.cancel();
+        if (timed.isExpired()) {
+          // the request has already failed
+          continue;
         }
-        try {
-          req.tryFail(t);
-        } catch (RuntimeException err) {
-          LOG.warn("Exception while running cleanup", err);
+        req = timed.handler;
+      }
+      if (req instanceof ReplyStream) {
+        ((ReplyStream<?>) req).fail(t);
+        continue;
+      }
+      if (req instanceof DecodedReply) {
+        ((DecodedReply<?>) req).fail(t);
+        continue;
+      }
+      if (req instanceof BatchReply) {
+        // takes a slot per reply, only the first one fails the batch
+        ((BatchReply) req).fail(t);
+        continue;
+      }
+      if (req instanceof PromiseInternal) {
+        if (((PromiseInternal<?>) req).isComplete()) {
+          // skip if already resolved
+          continue;
         }
       }
+      try {
+        ((Promise<?>) req).tryFail(t);
+      } catch (RuntimeException err) {
+        LOG.warn("Exception while running cleanup", err);
+      }
+    }
+    // the held writes were never written
+    rejectHeld(t);
+    // the parked requests were never written
+    Parked next;
+    while ((next = parked.poll()) != null) {
+      try {
+        next.reject.handle(t);
+      } catch (RuntimeException err) {
+        LOG.warn("Exception while running cleanup", err);
+      }
     }
+    parkedSlots = 0;
+    countSlots();
   }
 
   @Override
@@ -539,4 +1244,29 @@ public class RedisStandaloneConnection implements RedisConnectionInternal, Parse
   public TracingPolicy tracingPolicy() {
     return tracingPolicy;
   }
+
+  private static final class Held {
+    final Runnable write;
+    final Promise<Void> promise;
+    // the encoded request, null for a streamed request
+    final ByteBuf message;
+
+    Held(Runnable write, Promise<Void> promise, ByteBuf message) {
+      this.write = write;
+      this.promise = promise;
+      this.message = message;
+    }
+  }
+
+  private static final class Parked {
+    final int slots;
+    final Runnable task;
+    final Handler<Throwable> reject;
+
+    Parked(int slots, Runnable task, Handler<Throwable> reject) {
+      this.slots = slots;
+      this.task = task;
+      this.reject = reject;
+    }
+  }
 }
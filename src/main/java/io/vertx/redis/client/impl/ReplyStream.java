@@ -0,0 +1,192 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.codegen.annotations.Nullable;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.impl.InboundBuffer;
+import io.vertx.redis.client.Response;
+
+/**
+ * A reply that is delivered to the caller as a stream of items while it is being parsed, instead of being aggregated
+ * into a single {@link Response}. The stream takes the slot of the reply in the waiting queue and receives the
+ * terminal response (end, error or a non streamable type) as any other waiting handler.
+ * <p>
+ * Items are buffered in the caller context, when the buffer is full the socket is paused, so a slow consumer applies
+ * backpressure all the way to the server.
+ */
+abstract class ReplyStream<T> implements ReadStream<T> {
+
+  // nil items cannot be buffered, they are replaced by a marker
+  private static final Object NIL = new Object();
+
+  private final ContextInternal context;
+  // the source of the reply, paused when the consumer cannot keep up
+  private final ReadStream<?> source;
+  private final InboundBuffer<Object> pending;
+  private final Promise<Void> result;
+
+  private Handler<Throwable> exceptionHandler;
+  private Handler<Void> endHandler;
+  private Throwable failure;
+  private boolean ended;
+
+  ReplyStream(ContextInternal context, ReadStream<?> source) {
+    this.context = context;
+    this.source = source;
+    this.result = context.promise();
+    this.pending = new InboundBuffer<>(context);
+    this.pending.drainHandler(v -> source.resume());
+  }
+
+  /**
+   * Handles the terminal response of the reply, {@code null} stands for the RESP null type.
+   */
+  abstract void complete(@Nullable Response reply);
+
+  /**
+   * Resolves when the stream is ended or failed.
+   */
+  Future<Void> result() {
+    return result.future();
+  }
+
+  /**
+   * Emits an item, called from the parser.
+   */
+  final void write(@Nullable T item) {
+    context.execute(item == null ? NIL : item, this::write0);
+  }
+
+  /**
+   * Ends the stream once all buffered items have been consumed.
+   */
+  final void end() {
+    context.execute(null, this::end0);
+  }
+
+  /**
+   * Fails the stream, buffered items are discarded.
+   */
+  final void fail(Throwable t) {
+    context.execute(t, this::fail0);
+  }
+
+  private void write0(Object item) {
+    if (!pending.write(item)) {
+      // the consumer cannot keep up
+      source.pause();
+    }
+  }
+
+  private void end0(Void v) {
+    ended = true;
+    if (pending.isEmpty()) {
+      emitEnd(null);
+    } else {
+      pending.emptyHandler(this::emitEnd);
+    }
+  }
+
+  private void emitEnd(Void v) {
+    if (result.tryComplete()) {
+      final Handler<Void> handler;
+      synchronized (this) {
+        handler = endHandler;
+      }
+      if (handler != null) {
+        handler.handle(null);
+      }
+    }
+  }
+
+  private void fail0(Throwable t) {
+    if (result.tryFail(t)) {
+      final Handler<Throwable> handler;
+      synchronized (this) {
+        failure = t;
+        handler = exceptionHandler;
+      }
+      pending.clear();
+      // the source may have been paused by this stream
+      source.resume();
+      if (handler != null) {
+        handler.handle(t);
+      }
+    }
+  }
+
+  @Override
+  public ReadStream<T> exceptionHandler(@Nullable Handler<Throwable> handler) {
+    final Throwable failure;
+    synchronized (this) {
+      exceptionHandler = handler;
+      failure = this.failure;
+    }
+    // the failure happened before the handler was set
+    if (handler != null && failure != null) {
+      context.execute(failure, handler);
+    }
+    return this;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public ReadStream<T> handler(@Nullable Handler<T> handler) {
+    if (handler == null) {
+      pending.handler(null);
+    } else {
+      pending.handler(item -> handler.handle(item == NIL ? null : (T) item));
+    }
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> pause() {
+    pending.pause();
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> resume() {
+    pending.resume();
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> fetch(long amount) {
+    pending.fetch(amount);
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> endHandler(@Nullable Handler<Void> handler) {
+    final boolean complete;
+    synchronized (this) {
+      endHandler = handler;
+      complete = ended && result.future().succeeded();
+    }
+    // the end happened before the handler was set
+    if (handler != null && complete) {
+      context.execute(null, handler);
+    }
+    return this;
+  }
+}
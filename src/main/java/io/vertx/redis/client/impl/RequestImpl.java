@@ -15,14 +15,22 @@
  */
 package io.vertx.redis.client.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.redis.client.Command;
 import io.vertx.redis.client.Request;
 
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 
+import static io.vertx.redis.client.impl.RESPEncoder.numLength;
 import static io.vertx.redis.client.impl.RESPEncoder.numToBytes;
+import static io.vertx.redis.client.impl.RESPEncoder.writeNum;
 
 public final class RequestImpl implements Request {
 
@@ -33,11 +41,26 @@ public final class RequestImpl implements Request {
   private static final byte[] TRUE = new byte[]{'t'};
   private static final byte[] FALSE = new byte[]{'f'};
 
+  // buffer arguments of at least this size are written by reference, smaller ones are copied along the framing
+  private static final int REFERENCE_THRESHOLD = 1024;
+
   private final CommandImpl cmd;
-  private final List<byte[]> args;
+  // the template of the command and constant arguments, if any
+  private final PreparedRequestImpl prepared;
+  // either byte[], String or Long (encoded when written), ByteBuf (kept by reference), StreamedArgument or null
+  private final List<Object> args;
+  // the number of arguments that are not byte[]
+  private int descriptors;
+  // the number of ByteBuf arguments
+  private int buffers;
+  // the number of StreamedArgument arguments
+  private int streams;
+  // the reply timeout in milliseconds, -1 to use the connection default
+  private long timeout = -1;
 
   public RequestImpl(Command cmd) {
     this.cmd = (CommandImpl) cmd;
+    this.prepared = null;
 
     if (this.cmd.getArity() != 0) {
       args = new ArrayList<>(Math.abs(this.cmd.getArity()));
@@ -48,14 +71,24 @@ public final class RequestImpl implements Request {
 
   public RequestImpl(Command cmd, Object[] args) {
     this.cmd = (CommandImpl) cmd;
+    this.prepared = null;
     if (args != null) {
       final int len = args.length;
       if (len > 0) {
         for (int i = 0; i < args.length; i++) {
           final Object o = args[i];
           if (o != null) {
+            if (o instanceof Long || o instanceof Integer || o instanceof Short || o instanceof Byte) {
+              args[i] = integer(((Number) o).longValue());
+              if (!(args[i] instanceof byte[])) {
+                descriptors++;
+              }
+              continue;
+            }
             if (o instanceof Number) {
-              args[i] = o.toString().getBytes(StandardCharsets.US_ASCII);
+              // other numbers are encoded as their ASCII text
+              args[i] = o.toString();
+              descriptors++;
               continue;
             }
             if (o instanceof Boolean) {
@@ -63,41 +96,117 @@ public final class RequestImpl implements Request {
               continue;
             }
             if (o instanceof String) {
-              args[i] = ((String) o).getBytes(StandardCharsets.UTF_8);
+              descriptors++;
               continue;
             }
             if (o instanceof byte[]) {
               continue;
             }
             if (o instanceof Buffer) {
-              args[i] = ((Buffer) o).getBytes();
+              args[i] = ((Buffer) o).length() == 0 ? EMPTY_BYTES : ((Buffer) o).getByteBuf();
+              if (args[i] != EMPTY_BYTES) {
+                descriptors++;
+                buffers++;
+              }
+              continue;
+            }
+            if (o instanceof ByteBuf) {
+              if (!((ByteBuf) o).isReadable()) {
+                args[i] = EMPTY_BYTES;
+              } else {
+                descriptors++;
+                buffers++;
+              }
               continue;
             }
             throw new IllegalArgumentException("Unsupported argument type: " + o.getClass());
           }
         }
-        this.args = (List) Arrays.asList(args);
+        this.args = Arrays.asList(args);
         return;
       }
     }
     this.args = Collections.emptyList();
   }
 
+  /**
+   * A request from a template, only the variable arguments are added to it.
+   */
+  RequestImpl(PreparedRequestImpl prepared) {
+    this.cmd = prepared.commandImpl();
+    this.prepared = prepared;
+    this.args = new ArrayList<>(prepared.variables());
+  }
+
   @Override
   public Command command() {
     return cmd;
   }
 
+  @Override
+  public Request timeout(long timeout) {
+    if (timeout < 0) {
+      throw new IllegalArgumentException("timeout must be >= 0");
+    }
+    this.timeout = timeout;
+    return this;
+  }
+
+  /**
+   * The reply timeout of this request, or the given default when not set.
+   */
+  long getTimeout(long defaultTimeout) {
+    return timeout == -1 ? defaultTimeout : timeout;
+  }
+
   // arguments
 
   // integer
 
   @Override
   public Request arg(long arg) {
-    args.add(numToBytes(arg));
+    final Object value = integer(arg);
+    if (!(value instanceof byte[])) {
+      descriptors++;
+    }
+    args.add(value);
     return this;
   }
 
+  /**
+   * Cached conversions are used as is, other values are kept as a Long and their digits written when encoded.
+   */
+  private static Object integer(long value) {
+    return value >= 0 && value < 256 ? numToBytes(value) : Long.valueOf(value);
+  }
+
+  // string
+
+  @Override
+  public Request arg(String arg) {
+    if (arg == null) {
+      return nullArg();
+    }
+
+    if (arg.isEmpty()) {
+      args.add(EMPTY_BYTES);
+      return this;
+    }
+
+    // encoded straight into the output buffer
+    args.add(arg);
+    descriptors++;
+    return this;
+  }
+
+  @Override
+  public Request arg(String arg, String enc) {
+    if (arg != null && StandardCharsets.UTF_8.name().equalsIgnoreCase(enc)) {
+      return arg(arg);
+    }
+    return Request.super.arg(arg, enc);
+  }
+
   // boolean
   @Override
   public Request arg(boolean arg) {
@@ -136,61 +245,384 @@ public final class RequestImpl implements Request {
       return this;
     }
 
-    args.add(arg.getBytes());
+    // a duplicate sharing the content, the buffer is not copied
+    args.add(arg.getByteBuf());
+    descriptors++;
+    buffers++;
     return this;
   }
 
+  @Override
+  public Request arg(ByteBuf arg) {
+    if (arg == null) {
+      return nullArg();
+    }
+
+    if (!arg.isReadable()) {
+      args.add(EMPTY_BYTES);
+      return this;
+    }
+
+    args.add(arg);
+    descriptors++;
+    buffers++;
+    return this;
+  }
+
+  @Override
+  public Request arg(ReadStream<Buffer> source, long length) {
+    if (source == null) {
+      return nullArg();
+    }
+
+    if (length < 0) {
+      throw new IllegalArgumentException("length must be >= 0");
+    }
+
+    args.add(new StreamedArgument(source, length));
+    descriptors++;
+    streams++;
+    return this;
+  }
+
+  /**
+   * Whether this request has arguments read from a stream, such a request can only be written once, using
+   * {@link #encodeParts(ByteBufAllocator)}.
+   */
+  boolean isStreamed() {
+    return streams > 0;
+  }
+
   Buffer encode() {
-    return encode(Buffer.buffer());
+    final ByteBuf message = encode(UnpooledByteBufAllocator.DEFAULT);
+    try {
+      return Buffer.buffer(ByteBufUtil.getBytes(message));
+    } finally {
+      message.release();
+    }
+  }
+
+  /**
+   * Encodes this request into a direct buffer of the exact encoded size, taken from the given allocator.
+   */
+  ByteBuf encode(ByteBufAllocator alloc) {
+    return encode(alloc, Collections.singletonList(this));
   }
 
-  Buffer encode(Buffer buffer) {
-    buffer
-      // array header
-      .appendByte((byte) '*')
-      .appendBytes(numToBytes(args.size() + 1))
-      .appendBytes(EOL)
-      // command
-      .appendBytes(cmd.getBytes());
+  /**
+   * Encodes the given requests with a single allocation from the given allocator. Only the RESP framing and small
+   * arguments are written to the allocated buffer, large buffer arguments are referenced as components of a composite
+   * buffer. The returned buffer must be released, which is done by the transport once written.
+   */
+  static ByteBuf encode(ByteBufAllocator alloc, List<Request> requests) {
+    int length = 0;
+    boolean references = false;
+    for (Request request : requests) {
+      final RequestImpl req = (RequestImpl) request;
+      length += req.encodedLength();
+      references |= req.buffers > 0 || (req.prepared != null && req.prepared.prefix().readableBytes() >= REFERENCE_THRESHOLD);
+    }
+
+    final ByteBuf framing = alloc.directBuffer(length);
+    if (!references) {
+      for (Request request : requests) {
+        ((RequestImpl) request).encode(framing, null);
+      }
+      return framing;
+    }
+
+    final CompositeByteBuf message = alloc.compositeDirectBuffer(Integer.MAX_VALUE);
+    for (Request request : requests) {
+      ((RequestImpl) request).encode(framing, message);
+    }
+    if (framing.isReadable()) {
+      message.addComponent(true, framing.readRetainedSlice(framing.readableBytes()));
+    }
+    // the slices retain the framing buffer
+    framing.release();
+    return message;
+  }
 
-    for (final byte[] arg : args) {
+  /**
+   * Computes the exact amount of bytes of the encoded request, without the arguments that are written by reference,
+   * so it can be written with a single allocation.
+   */
+  int encodedLength() {
+    int length;
+    if (prepared != null) {
+      // the cached array header, command and constant arguments
+      final int size = prepared.prefix().readableBytes();
+      length = size < REFERENCE_THRESHOLD ? size : 0;
+    } else {
+      // array header and command
+      length = 1 + numLength(args.size() + 1) + EOL.length + cmd.getBytes().length;
+    }
+
+    for (final Object arg : args) {
       if (arg == null) {
-        buffer.appendBytes(NULL_BULK);
+        length += NULL_BULK.length;
         continue;
       }
 
-      if (arg.length == 0) {
-        buffer.appendBytes(EMPTY_BULK);
+      if (arg instanceof StreamedArgument) {
+        // only the bulk header and trailer, the payload is written from the stream
+        length += 1 + numLength(((StreamedArgument) arg).length()) + EOL.length + EOL.length;
         continue;
       }
 
-      buffer
-        .appendByte((byte) '$')
-        .appendBytes(numToBytes(arg.length))
-        .appendBytes(EOL)
-        .appendBytes(arg)
-        .appendBytes(EOL);
+      final int size = size(arg);
+
+      if (size == 0) {
+        length += EMPTY_BULK.length;
+        continue;
+      }
+
+      length += 1 + numLength(size) + EOL.length + EOL.length;
+      if (!(arg instanceof ByteBuf) || size < REFERENCE_THRESHOLD) {
+        length += size;
+      }
+    }
+
+    return length;
+  }
+
+  private static int size(Object arg) {
+    if (arg instanceof byte[]) {
+      return ((byte[]) arg).length;
+    }
+    if (arg instanceof String) {
+      return ByteBufUtil.utf8Bytes((String) arg);
+    }
+    if (arg instanceof Long) {
+      return numLength((Long) arg);
     }
+    return ((ByteBuf) arg).readableBytes();
+  }
 
-    return buffer;
+  /**
+   * Writes the framing and small arguments to the given buffer. When a composite is given, large buffer arguments are
+   * added to it by reference, preceded by the framing written so far.
+   */
+  private void encode(ByteBuf framing, CompositeByteBuf message) {
+    encodeHeader(framing, message);
+    encodeArguments(framing, message);
   }
 
+  /**
+   * Writes the array header and the command, or the cached prefix of a template.
+   */
+  private void encodeHeader(ByteBuf framing, CompositeByteBuf message) {
+    if (prepared != null) {
+      final ByteBuf prefix = prepared.prefix();
+      final int size = prefix.readableBytes();
+      if (message != null && size >= REFERENCE_THRESHOLD) {
+        // the framing so far, followed by the cached prefix
+        if (framing.isReadable()) {
+          message.addComponent(true, framing.readRetainedSlice(framing.readableBytes()));
+        }
+        message.addComponent(true, prefix.retainedDuplicate());
+      } else {
+        framing.writeBytes(prefix, prefix.readerIndex(), size);
+      }
+    } else {
+      framing
+        // array header
+        .writeByte('*');
+      writeNum(framing, args.size() + 1);
+      framing
+        .writeBytes(EOL)
+        // command
+        .writeBytes(cmd.getBytes());
+    }
+  }
+
+  /**
+   * Writes the arguments to the given buffer, see {@link #encode(ByteBuf, CompositeByteBuf)}.
+   */
+  void encodeArguments(ByteBuf framing, CompositeByteBuf message) {
+    for (final Object arg : args) {
+      encodeArgument(framing, message, arg);
+    }
+  }
+
+  private static void encodeArgument(ByteBuf framing, CompositeByteBuf message, Object arg) {
+    if (arg == null) {
+      framing.writeBytes(NULL_BULK);
+      return;
+    }
+
+    if (arg instanceof StreamedArgument) {
+      throw new IllegalStateException("Streamed arguments cannot be encoded to a single buffer");
+    }
+
+    if (arg instanceof byte[]) {
+      final byte[] bytes = (byte[]) arg;
+
+      if (bytes.length == 0) {
+        framing.writeBytes(EMPTY_BULK);
+        return;
+      }
+
+      framing.writeByte('$');
+      writeNum(framing, bytes.length);
+      framing
+        .writeBytes(EOL)
+        .writeBytes(bytes)
+        .writeBytes(EOL);
+      return;
+    }
+
+    if (arg instanceof String) {
+      final String string = (String) arg;
+      final int size = ByteBufUtil.utf8Bytes(string);
+
+      framing.writeByte('$');
+      writeNum(framing, size);
+      framing.writeBytes(EOL);
+      if (size == string.length()) {
+        // ASCII fast path
+        ByteBufUtil.writeAscii(framing, string);
+      } else {
+        ByteBufUtil.reserveAndWriteUtf8(framing, string, size);
+      }
+      framing.writeBytes(EOL);
+      return;
+    }
+
+    if (arg instanceof Long) {
+      final long value = (Long) arg;
+
+      framing.writeByte('$');
+      writeNum(framing, numLength(value));
+      framing.writeBytes(EOL);
+      writeNum(framing, value);
+      framing.writeBytes(EOL);
+      return;
+    }
+
+    final ByteBuf buffer = (ByteBuf) arg;
+    final int size = buffer.readableBytes();
+
+    framing.writeByte('$');
+    writeNum(framing, size);
+    framing.writeBytes(EOL);
+
+    if (message != null && size >= REFERENCE_THRESHOLD) {
+      // the framing so far, followed by the argument itself
+      message.addComponent(true, framing.readRetainedSlice(framing.readableBytes()));
+      message.addComponent(true, buffer.retainedDuplicate());
+    } else {
+      framing.writeBytes(buffer, buffer.readerIndex(), size);
+    }
+
+    framing.writeBytes(EOL);
+  }
+
+  /**
+   * Encodes a request with streamed arguments as the buffers to write before, between and after the streams, in
+   * order, with the {@link StreamedArgument} in their place. The buffers must be released, which is done by the
+   * transport once written.
+   */
+  List<Object> encodeParts(ByteBufAllocator alloc) {
+    final List<Object> parts = new ArrayList<>(2 * streams + 1);
+    final ByteBuf framing = alloc.directBuffer(encodedLength());
+    CompositeByteBuf message = alloc.compositeDirectBuffer(Integer.MAX_VALUE);
+
+    encodeHeader(framing, message);
+    for (final Object arg : args) {
+      if (arg instanceof StreamedArgument) {
+        final StreamedArgument stream = (StreamedArgument) arg;
+        framing.writeByte('$');
+        writeNum(framing, stream.length());
+        framing.writeBytes(EOL);
+        // all before the payload
+        message.addComponent(true, framing.readRetainedSlice(framing.readableBytes()));
+        parts.add(message);
+        parts.add(stream);
+        message = alloc.compositeDirectBuffer(Integer.MAX_VALUE);
+        framing.writeBytes(EOL);
+        continue;
+      }
+      encodeArgument(framing, message, arg);
+    }
+    message.addComponent(true, framing.readRetainedSlice(framing.readableBytes()));
+    parts.add(message);
+    // the slices retain the framing buffer
+    framing.release();
+    return parts;
+  }
+
+  /**
+   * The arguments as byte arrays, arguments that are not byte arrays are converted when accessed.
+   */
+  @SuppressWarnings("unchecked")
   List<byte[]> getArgs() {
-    return args;
+    if (descriptors == 0 && prepared == null) {
+      return (List) args;
+    }
+
+    // the constant arguments of a template come first
+    final List<byte[]> constants = prepared != null ? prepared.constants() : Collections.emptyList();
+
+    return new AbstractList<byte[]>() {
+      @Override
+      public byte[] get(int index) {
+        if (index < constants.size()) {
+          return constants.get(index);
+        }
+        final Object arg = args.get(index - constants.size());
+        if (arg instanceof String) {
+          return ((String) arg).getBytes(StandardCharsets.UTF_8);
+        }
+        if (arg instanceof Long) {
+          return numToBytes((Long) arg);
+        }
+        if (arg instanceof StreamedArgument) {
+          // the content is only read when written, a value is not expected to be a key
+          return EMPTY_BYTES;
+        }
+        return arg instanceof ByteBuf ? ByteBufUtil.getBytes((ByteBuf) arg) : (byte[]) arg;
+      }
+
+      @Override
+      public int size() {
+        return constants.size() + args.size();
+      }
+    };
   }
 
   public List<byte[]> keys() {
-    return cmd.extractKeys(args);
+    return cmd.extractKeys(getArgs());
   }
 
   @Override
   public String toString() {
-    return encode().toString();
+    if (streams == 0) {
+      return encode().toString();
+    }
+
+    final StringBuilder sb = new StringBuilder();
+    for (Object part : encodeParts(UnpooledByteBufAllocator.DEFAULT)) {
+      if (part instanceof ByteBuf) {
+        sb.append(((ByteBuf) part).toString(StandardCharsets.UTF_8));
+        ((ByteBuf) part).release();
+      } else {
+        sb.append(part);
+      }
+    }
+    return sb.toString();
   }
 
   public boolean valid() {
     int arity = cmd.getArity();
     int arglen = args.size() + 1;
+    if (prepared != null) {
+      // the array header was encoded for a fixed amount of variable arguments
+      if (args.size() != prepared.variables()) {
+        return false;
+      }
+      arglen += prepared.constants().size();
+    }
     if (arity >= 0) {
       return arity == arglen;
     } else {
@@ -207,11 +639,11 @@ public final class RequestImpl implements Request {
       return false;
     }
     RequestImpl request = (RequestImpl) o;
-    return Objects.equals(cmd, request.cmd) && Objects.equals(args, request.args);
+    return Objects.equals(cmd, request.cmd) && prepared == request.prepared && Objects.equals(args, request.args);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(cmd, args);
+    return Objects.hash(cmd, prepared, args);
   }
 }
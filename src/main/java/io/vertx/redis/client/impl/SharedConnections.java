@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.redis.client.Command;
+import io.vertx.redis.client.RedisConnection;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+import static io.vertx.redis.client.Command.*;
+
+/**
+ * A fixed set of long-lived connections shared by the connection-less sends of a client. Redis replies in order, so
+ * the requests of all the callers are pipelined over these connections instead of leasing a connection per request.
+ * <p>
+ * Connections are opened on first use and replaced once they end. Commands that block the connection, or change
+ * its state, cannot be shared and must lease a connection.
+ */
+final class SharedConnections {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SharedConnections.class);
+
+  private static final Set<Command> EXCLUSIVE_COMMANDS = new HashSet<>(Arrays.asList(
+    // blocking
+    BLMOVE, BLMPOP, BLPOP, BRPOP, BRPOPLPUSH, BZMPOP, BZPOPMAX, BZPOPMIN, WAIT, XREAD, XREADGROUP,
+    // stateful
+    ASKING, AUTH, CLIENT, DISCARD, EXEC, HELLO, MONITOR, MULTI, PSYNC, QUIT, READONLY, READWRITE, RESET, SELECT,
+    SYNC, UNWATCH, WATCH));
+
+  private final Supplier<Future<RedisConnection>> connector;
+  private final AtomicReferenceArray<Future<RedisConnection>> connections;
+  private final AtomicInteger next = new AtomicInteger();
+
+  SharedConnections(int size, Supplier<Future<RedisConnection>> connector) {
+    this.connector = connector;
+    this.connections = new AtomicReferenceArray<>(size);
+  }
+
+  /**
+   * Whether the request can be sent over a shared connection.
+   */
+  static boolean canShare(RequestImpl request) {
+    // a streamed argument would hold the writes of all the other callers
+    return !EXCLUSIVE_COMMANDS.contains(request.command()) && !request.isStreamed();
+  }
+
+  /**
+   * Returns the next connection in a round-robin fashion, opening it if needed. The future is not bound to a context,
+   * callers complete their own promise with the outcome of the request.
+   */
+  Future<RedisConnection> get() {
+    final int index = (next.getAndIncrement() & Integer.MAX_VALUE) % connections.length();
+    final Future<RedisConnection> current = connections.get(index);
+
+    if (current != null && !current.failed()) {
+      return current;
+    }
+
+    final Promise<RedisConnection> promise = Promise.promise();
+    if (!connections.compareAndSet(index, current, promise.future())) {
+      // another caller is opening it
+      return connections.get(index);
+    }
+
+    connector.get()
+      .onSuccess(conn -> {
+        // replaced on the next request once it ends
+        conn.endHandler(v -> connections.compareAndSet(index, promise.future(), null));
+        conn.exceptionHandler(err -> {
+          LOG.debug("Shared connection failed", err);
+          connections.compareAndSet(index, promise.future(), null);
+        });
+      })
+      .onComplete(promise);
+
+    return promise.future();
+  }
+
+  void close() {
+    for (int i = 0; i < connections.length(); i++) {
+      final Future<RedisConnection> conn = connections.getAndSet(i, null);
+      if (conn != null) {
+        // return the connections to the pool
+        conn.onSuccess(RedisConnection::close);
+      }
+    }
+  }
+}
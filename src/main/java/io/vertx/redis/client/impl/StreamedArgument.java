@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.impl.NoStackTraceThrowable;
+import io.vertx.core.net.NetSocket;
+import io.vertx.core.streams.ReadStream;
+
+/**
+ * A bulk argument whose payload is read from a stream when the request is written. The stream is paused until then,
+ * its content is written to the socket as it arrives, pausing the stream while the socket write queue is full.
+ */
+final class StreamedArgument {
+
+  private final ReadStream<Buffer> source;
+  private final long length;
+  // a stream can only be consumed once
+  private boolean written;
+
+  StreamedArgument(ReadStream<Buffer> source, long length) {
+    this.source = source;
+    this.length = length;
+    // hold the content until the request is written
+    source.pause();
+  }
+
+  long length() {
+    return length;
+  }
+
+  /**
+   * Writes the payload to the socket, the bulk header has already been written. The returned future fails if the
+   * stream fails or does not provide exactly the declared amount of bytes, which leaves the socket in an unknown state.
+   *
+   * @param socket the socket to write to
+   * @param drain registers a handler called once the socket write queue drains, it is called from the thread of the
+   *              stream and the socket may have drained in the meantime
+   */
+  Future<Void> writeTo(NetSocket socket, Handler<Handler<Void>> drain) {
+    final Promise<Void> promise = Promise.promise();
+
+    if (written) {
+      promise.fail(new NoStackTraceThrowable("Streamed argument was already written"));
+      return promise.future();
+    }
+    written = true;
+
+    final long[] remaining = {length};
+
+    source.exceptionHandler(promise::tryFail);
+    source.endHandler(v -> {
+      if (remaining[0] != 0) {
+        promise.tryFail(new NoStackTraceThrowable("Streamed argument ended " + remaining[0] + " bytes short of its length"));
+      } else {
+        promise.tryComplete();
+      }
+    });
+    source.handler(chunk -> {
+      remaining[0] -= chunk.length();
+      if (remaining[0] < 0) {
+        source.pause();
+        promise.tryFail(new NoStackTraceThrowable("Streamed argument exceeds its length of " + length + " bytes"));
+        return;
+      }
+      socket.write(chunk);
+      if (socket.writeQueueFull()) {
+        source.pause();
+        drain.handle(drained -> source.resume());
+      }
+    });
+
+    source.resume();
+    return promise.future();
+  }
+
+  @Override
+  public String toString() {
+    return "<stream of " + length + " bytes>";
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+/**
+ * Takes the slot of a waiting handler whose reply is timed out, a batch handler takes all the slots of its batch. Once
+ * expired, the slot stays in the waiting queue so the late reply is matched and discarded.
+ */
+final class TimedReply extends TimerWheel.Timeout {
+
+  final Object handler;
+  private final RedisStandaloneConnection connection;
+  private boolean expired;
+
+  TimedReply(Object handler, RedisStandaloneConnection connection) {
+    this.handler = handler;
+    this.connection = connection;
+  }
+
+  boolean isExpired() {
+    return expired;
+  }
+
+  @Override
+  void expire() {
+    expired = true;
+    connection.timeout(this);
+  }
+
+  @Override
+  public String toString() {
+    return handler.toString();
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.FastThreadLocal;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A hashed timer wheel confined to an event loop, shared by all the connections of the event loop. Scheduling and
+ * cancelling a timeout is a constant time list operation, and a single event loop task ticks the wheel while there
+ * are pending timeouts, instead of a timer per timeout.
+ * <p>
+ * Timeouts have a resolution of {@link #TICK_MILLIS} milliseconds and expire on the event loop.
+ */
+final class TimerWheel {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TimerWheel.class);
+
+  static final long TICK_MILLIS = 10;
+
+  private static final long TICK = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+  private static final int SIZE = 512;
+  private static final int MASK = SIZE - 1;
+
+  private static final FastThreadLocal<TimerWheel> WHEELS = new FastThreadLocal<>();
+
+  /**
+   * The wheel of the given event loop, must be called from the event loop.
+   */
+  static TimerWheel get(EventLoop eventLoop) {
+    assert eventLoop.inEventLoop();
+    TimerWheel wheel = WHEELS.get();
+    if (wheel == null) {
+      wheel = new TimerWheel(eventLoop);
+      WHEELS.set(wheel);
+    }
+    return wheel;
+  }
+
+  /**
+   * A timeout, subclasses define what happens on expiry.
+   */
+  abstract static class Timeout {
+    private TimerWheel wheel;
+    private long deadline;
+    private Timeout prev;
+    private Timeout next;
+
+    abstract void expire();
+
+    /**
+     * Cancels this timeout, if it is still pending.
+     */
+    final void cancel() {
+      if (wheel != null) {
+        wheel.remove(this);
+      }
+    }
+  }
+
+  private final EventLoop eventLoop;
+  private final long origin = System.nanoTime();
+  // the heads of the timeouts of each bucket
+  private final Timeout[] buckets = new Timeout[SIZE];
+  // the last processed tick
+  private long tick;
+  private int pending;
+  private boolean scheduled;
+
+  private TimerWheel(EventLoop eventLoop) {
+    this.eventLoop = eventLoop;
+  }
+
+  private long now() {
+    return (System.nanoTime() - origin) / TICK;
+  }
+
+  /**
+   * Schedules the timeout to expire after the given delay in milliseconds.
+   */
+  void schedule(Timeout timeout, long delay) {
+    final long now = now();
+    if (pending == 0) {
+      // nothing to process in between
+      tick = now;
+    }
+
+    timeout.wheel = this;
+    timeout.deadline = now + Math.max(1, (delay + TICK_MILLIS - 1) / TICK_MILLIS);
+    final int index = (int) (timeout.deadline & MASK);
+    timeout.prev = null;
+    timeout.next = buckets[index];
+    if (timeout.next != null) {
+      timeout.next.prev = timeout;
+    }
+    buckets[index] = timeout;
+    pending++;
+
+    if (!scheduled) {
+      scheduled = true;
+      eventLoop.schedule(this::advance, TICK, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void remove(Timeout timeout) {
+    if (timeout.prev != null) {
+      timeout.prev.next = timeout.next;
+    } else {
+      buckets[(int) (timeout.deadline & MASK)] = timeout.next;
+    }
+    if (timeout.next != null) {
+      timeout.next.prev = timeout.prev;
+    }
+    timeout.wheel = null;
+    timeout.prev = null;
+    timeout.next = null;
+    pending--;
+  }
+
+  private void advance() {
+    scheduled = false;
+    final long now = now();
+    // a late tick processes each bucket at most once
+    final long end = Math.min(now, tick + SIZE);
+
+    while (tick < end && pending > 0) {
+      tick++;
+      final int index = (int) (tick & MASK);
+      Timeout timeout = buckets[index];
+      while (timeout != null) {
+        if (timeout.deadline > now) {
+          // a later round
+          timeout = timeout.next;
+          continue;
+        }
+        remove(timeout);
+        try {
+          timeout.expire();
+        } catch (RuntimeException e) {
+          LOG.warn("Exception while expiring a timeout", e);
+        }
+        // the expiry may have cancelled other timeouts of the bucket
+        timeout = buckets[index];
+      }
+    }
+    tick = now;
+
+    if (pending > 0 && !scheduled) {
+      scheduled = true;
+      eventLoop.schedule(this::advance, TICK, TimeUnit.NANOSECONDS);
+    }
+  }
+}
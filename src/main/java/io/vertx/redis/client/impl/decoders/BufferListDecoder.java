@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl.decoders;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.ResponseDecoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes a flat aggregate reply as a list of buffers, nil elements are kept as {@code null}.
+ */
+public final class BufferListDecoder implements ResponseDecoder<List<Buffer>> {
+
+  private List<Buffer> list;
+
+  @Override
+  public void multi(int size, boolean map) {
+    if (list != null) {
+      throw new IllegalStateException("Nested multi replies cannot be decoded as a list");
+    }
+    list = new ArrayList<>(map ? size * 2 : size);
+  }
+
+  @Override
+  public void bulk(Buffer value) {
+    element().add(value);
+  }
+
+  @Override
+  public void simple(String value) {
+    element().add(Buffer.buffer(value));
+  }
+
+  @Override
+  public void nil() {
+    // a nil reply is a null list
+    if (list != null) {
+      list.add(null);
+    }
+  }
+
+  private List<Buffer> element() {
+    if (list == null) {
+      throw new IllegalStateException("Reply is not a multi");
+    }
+    return list;
+  }
+
+  @Override
+  public List<Buffer> result() {
+    return list;
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl.decoders;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.ResponseDecoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decodes a map reply, or a flat aggregate of alternating keys and values, as a map of buffers.
+ */
+public final class BufferMapDecoder implements ResponseDecoder<Map<String, Buffer>> {
+
+  private Map<String, Buffer> map;
+  // mutable temporary state
+  private String key;
+
+  @Override
+  public void multi(int size, boolean map) {
+    if (this.map != null) {
+      throw new IllegalStateException("Nested multi replies cannot be decoded as a map");
+    }
+    this.map = new HashMap<>(map ? size : size / 2, 1.0f);
+  }
+
+  @Override
+  public void bulk(Buffer value) {
+    if (key == null) {
+      key(value.toString());
+    } else {
+      value(value);
+    }
+  }
+
+  @Override
+  public void simple(String value) {
+    if (key == null) {
+      key(value);
+    } else {
+      value(Buffer.buffer(value));
+    }
+  }
+
+  @Override
+  public void nil() {
+    if (map == null) {
+      // a nil reply is a null map
+      return;
+    }
+    if (key == null) {
+      throw new IllegalStateException("Map key is NULL");
+    }
+    value(null);
+  }
+
+  private void key(String value) {
+    if (map == null) {
+      throw new IllegalStateException("Reply is not a multi");
+    }
+    key = value;
+  }
+
+  private void value(Buffer value) {
+    map.put(key, value);
+    // clear the key
+    key = null;
+  }
+
+  @Override
+  public Map<String, Buffer> result() {
+    return map;
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl.decoders;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.ResponseDecoder;
+
+/**
+ * Decodes an integer reply, or its text representation, as a {@code long}.
+ */
+public final class LongDecoder implements ResponseDecoder<Long> {
+
+  private Long value;
+
+  @Override
+  public void number(long value) {
+    this.value = value;
+  }
+
+  @Override
+  public void bulk(Buffer value) {
+    this.value = Long.parseLong(value.toString());
+  }
+
+  @Override
+  public void simple(String value) {
+    this.value = Long.parseLong(value);
+  }
+
+  @Override
+  public void nil() {
+    this.value = null;
+  }
+
+  @Override
+  public Long result() {
+    return value;
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl.decoders;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.ResponseDecoder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decodes members with their scores, keeping the order of the reply. {@code RESP2} replies alternate members and
+ * scores as bulks, {@code RESP3} replies nest a member and its double score in pairs.
+ */
+public final class ScoredMembersDecoder implements ResponseDecoder<Map<String, Double>> {
+
+  private Map<String, Double> members;
+  // mutable temporary state
+  private String member;
+
+  @Override
+  public void multi(int size, boolean map) {
+    if (members == null) {
+      members = new LinkedHashMap<>();
+      return;
+    }
+    // RESP3 pairs
+    if (map || size != 2 || member != null) {
+      throw new IllegalStateException("Reply is not a list of scored members");
+    }
+  }
+
+  @Override
+  public void bulk(Buffer value) {
+    if (members == null) {
+      throw new IllegalStateException("Reply is not a multi");
+    }
+    if (member == null) {
+      member = value.toString();
+    } else {
+      // RESP2 scores are bulks
+      score(Double.parseDouble(value.toString()));
+    }
+  }
+
+  @Override
+  public void decimal(double value) {
+    if (member == null) {
+      throw new IllegalStateException("Score without member");
+    }
+    score(value);
+  }
+
+  @Override
+  public void nil() {
+    // a nil reply is a null map
+    if (members != null) {
+      throw new IllegalStateException("Scored member is NULL");
+    }
+  }
+
+  private void score(double value) {
+    members.put(member, value);
+    // clear the member
+    member = null;
+  }
+
+  @Override
+  public Map<String, Double> result() {
+    return members;
+  }
+}
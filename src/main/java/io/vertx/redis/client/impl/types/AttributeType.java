@@ -84,6 +84,15 @@ public final class AttributeType implements Multi {
     return replies.length;
   }
 
+  @Override
+  public void release() {
+    for (Response reply : replies) {
+      if (reply != null) {
+        reply.release();
+      }
+    }
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder();
@@ -15,6 +15,10 @@
  */
 package io.vertx.redis.client.impl.types;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ResourceLeakDetector;
+import io.netty.util.ResourceLeakDetectorFactory;
+import io.netty.util.ResourceLeakTracker;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.redis.client.Response;
 import io.vertx.redis.client.ResponseType;
@@ -24,14 +28,32 @@ import java.nio.charset.StandardCharsets;
 
 public final class BulkType implements Response {
 
+  // reports zero copy responses that are garbage collected without being released
+  private static final ResourceLeakDetector<BulkType> LEAK_DETECTOR =
+    ResourceLeakDetectorFactory.instance().newResourceLeakDetector(BulkType.class);
+
   public static final BulkType EMPTY = new BulkType(Buffer.buffer(""), false);
 
   public static BulkType create(Buffer message, boolean verbatim) {
     return new BulkType(message, verbatim);
   }
 
+  /**
+   * Creates a bulk that wraps the given network buffer without copying it. The bulk takes ownership of the buffer,
+   * which is returned to its pool once the bulk is released.
+   */
+  public static BulkType create(ByteBuf payload, boolean verbatim) {
+    final BulkType bulk = new BulkType(Buffer.buffer(payload), verbatim);
+    bulk.payload = payload;
+    bulk.leak = LEAK_DETECTOR.track(bulk);
+    return bulk;
+  }
+
   private final Buffer message;
   private final String format;
+  // the retained network buffer, if any, cleared once released
+  private ByteBuf payload;
+  private ResourceLeakTracker<BulkType> leak;
 
   private BulkType(Buffer message, boolean verbatim) {
     if (verbatim) {
@@ -73,4 +95,16 @@ public final class BulkType implements Response {
   public byte[] toBytes() {
     return message.getBytes();
   }
+
+  @Override
+  public void release() {
+    if (payload != null) {
+      payload.release();
+      payload = null;
+      if (leak != null) {
+        leak.close(this);
+        leak = null;
+      }
+    }
+  }
 }
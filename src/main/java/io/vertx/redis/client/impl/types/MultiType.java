@@ -82,6 +82,8 @@ public final class MultiType implements Multi {
           case BULK:
           case SIMPLE:
             key = reply.toString();
+            // only the value of the key is kept
+            reply.release();
             break;
           default:
             throw new IllegalArgumentException("Map key is not BULK or SIMPLE");
@@ -192,6 +194,24 @@ public final class MultiType implements Multi {
     return size;
   }
 
+  @Override
+  public void release() {
+    if (map != null) {
+      for (Response reply : map.values()) {
+        if (reply != null) {
+          reply.release();
+        }
+      }
+    }
+    if (multi != null) {
+      for (Response reply : multi) {
+        if (reply != null) {
+          reply.release();
+        }
+      }
+    }
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder();
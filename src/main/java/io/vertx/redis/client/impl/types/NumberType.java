@@ -22,10 +22,28 @@ import java.math.BigInteger;
 
 public final class NumberType implements Response {
 
+  // small integers (EXISTS, SISMEMBER, DEL, counters...) are served from a cache of immutable instances
+  private static final int CACHE_LOW = -128;
+  private static final int CACHE_HIGH = 1023;
+  private static final NumberType[] CACHE = new NumberType[CACHE_HIGH - CACHE_LOW + 1];
+
+  static {
+    for (int i = 0; i < CACHE.length; i++) {
+      CACHE[i] = new NumberType((long) (i + CACHE_LOW));
+    }
+  }
+
   public static NumberType create(Number value) {
     return new NumberType(value);
   }
 
+  public static NumberType create(long value) {
+    if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+      return CACHE[(int) value - CACHE_LOW];
+    }
+    return new NumberType(value);
+  }
+
   private final Number value;
 
   private NumberType(Number value) {
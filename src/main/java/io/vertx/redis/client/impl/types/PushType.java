@@ -58,6 +58,15 @@ public final class PushType implements Multi {
     return replies.length;
   }
 
+  @Override
+  public void release() {
+    for (Response reply : replies) {
+      if (reply != null) {
+        reply.release();
+      }
+    }
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder();
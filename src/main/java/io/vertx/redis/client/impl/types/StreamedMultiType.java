@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl.types;
+
+import io.vertx.core.Handler;
+import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseType;
+
+/**
+ * A Redis MULTI response that doesn't hold its elements, each element is handed over to a consumer as soon as it is
+ * parsed. Map entries are handed over as a key followed by its value.
+ */
+public final class StreamedMultiType implements Multi {
+
+  public static StreamedMultiType create(long length, boolean asMap, Handler<Response> consumer) {
+    return new StreamedMultiType(asMap ? (int) length * 2 : (int) length, consumer);
+  }
+
+  private final Handler<Response> consumer;
+  // the expected size
+  private final int size;
+  // mutable temporary state
+  private int count;
+  // a nested aggregate that is still being parsed
+  private Multi nested;
+
+  private StreamedMultiType(int size, Handler<Response> consumer) {
+    this.size = size;
+    this.consumer = consumer;
+  }
+
+  @Override
+  public ResponseType type() {
+    return ResponseType.MULTI;
+  }
+
+  @Override
+  public void add(Response reply) {
+    flush();
+    // nested aggregates are added before their elements are parsed,
+    // they are handed over once complete
+    if (reply instanceof Multi && !((Multi) reply).complete()) {
+      nested = (Multi) reply;
+    } else {
+      emit(reply);
+    }
+    // increment the counter
+    count++;
+  }
+
+  @Override
+  public boolean complete() {
+    // the parser verifies the completion as soon as a nested aggregate is complete
+    flush();
+    return count == size;
+  }
+
+  private void flush() {
+    if (nested != null && nested.complete()) {
+      final Multi reply = nested;
+      nested = null;
+      emit(reply);
+    }
+  }
+
+  private void emit(Response reply) {
+    // attributes are not part of the reply
+    if (reply != null && reply.type() == ResponseType.ATTRIBUTE) {
+      return;
+    }
+    consumer.handle(reply);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    return "[streamed]";
+  }
+}
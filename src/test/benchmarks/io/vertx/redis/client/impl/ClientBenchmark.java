@@ -0,0 +1,108 @@
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.Redis;
+import io.vertx.redis.client.RedisConnection;
+import io.vertx.redis.client.RedisOptions;
+import io.vertx.redis.client.Request;
+import io.vertx.redis.client.Response;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.vertx.redis.client.Command.GET;
+import static io.vertx.redis.client.Command.SET;
+import static io.vertx.redis.client.Request.cmd;
+
+/**
+ * Round trips of the client against the in-process {@link RESPServer} over loopback: single requests, with a leased
+ * or a shared connection, and 100 requests pipelined or batched on a connection. Unlike the codec benchmarks, this
+ * includes the pool, the waiting queue, the socket writes and the context switches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientBenchmark {
+
+  private static final int PIPELINE = 100;
+
+  @Param({"false", "true"})
+  public boolean autoPipelining;
+
+  private Vertx vertx;
+  private RESPServer server;
+  // leases a connection per send
+  private Redis pooled;
+  // pipelines the sends over 2 shared connections
+  private Redis multiplexed;
+  private RedisConnection connection;
+  private List<Request> batch;
+
+  @Setup
+  public void setup() {
+    vertx = Vertx.vertx();
+    // the server handles all its connections on the event loop it listens from
+    server = join(new RESPServer(vertx).listen(0));
+
+    pooled = Redis.createClient(vertx, options());
+    multiplexed = Redis.createClient(vertx, options().setMultiplexedConnections(2));
+    connection = join(pooled.connect());
+
+    join(connection.send(cmd(SET).arg("key").arg(Buffer.buffer(new byte[128]))));
+
+    batch = new ArrayList<>(PIPELINE);
+    for (int i = 0; i < PIPELINE; i++) {
+      batch.add(cmd(GET).arg("key"));
+    }
+  }
+
+  private RedisOptions options() {
+    return new RedisOptions()
+      .setConnectionString(server.endpoint())
+      .setAutoPipelining(autoPipelining);
+  }
+
+  @TearDown
+  public void tearDown() {
+    join(connection.close());
+    pooled.close();
+    multiplexed.close();
+    join(server.close());
+    join(vertx.close());
+  }
+
+  @Benchmark
+  public Response sendPooled() {
+    return join(pooled.send(cmd(GET).arg("key")));
+  }
+
+  @Benchmark
+  public Response sendMultiplexed() {
+    return join(multiplexed.send(cmd(GET).arg("key")));
+  }
+
+  @Benchmark
+  public Object pipelined() {
+    final List<Future<Response>> replies = new ArrayList<>(PIPELINE);
+    for (int i = 0; i < PIPELINE; i++) {
+      replies.add(connection.send(cmd(GET).arg("key")));
+    }
+    return join(Future.all(replies));
+  }
+
+  @Benchmark
+  public List<Response> batch() {
+    return join(connection.batch(batch));
+  }
+
+  private static <T> T join(Future<T> future) {
+    return future.toCompletionStage().toCompletableFuture().join();
+  }
+}
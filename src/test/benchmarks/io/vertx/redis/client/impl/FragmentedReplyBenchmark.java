@@ -0,0 +1,87 @@
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.Response;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses replies that arrive split across many socket reads, the worst case for a parser that rolls back to the
+ * beginning of a frame when it is incomplete.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FragmentedReplyBenchmark {
+
+  @Param({"7", "1024", "16384"})
+  public int chunkSize;
+
+  private Buffer[] largeBulk;
+  private Buffer[] wideMulti;
+
+  private RESPParser parser;
+  private int replies;
+
+  @Setup
+  public void setup() {
+    // a 4MB bulk string
+    byte[] payload = new byte[4 * 1024 * 1024];
+    Buffer bulk = Buffer.buffer()
+      .appendString("$" + payload.length + "\r\n")
+      .appendBytes(payload)
+      .appendString("\r\n");
+
+    // a 10k elements array of small bulks and integers
+    Buffer multi = Buffer.buffer().appendString("*10000\r\n");
+    for (int i = 0; i < 5000; i++) {
+      multi
+        .appendString("$8\r\nvalue:").appendString(String.format("%02d", i % 100)).appendString("\r\n")
+        .appendString(":").appendString(Integer.toString(i)).appendString("\r\n");
+    }
+
+    largeBulk = split(bulk, chunkSize);
+    wideMulti = split(multi, chunkSize);
+
+    parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        replies++;
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        throw new IllegalStateException(t);
+      }
+    }, 16);
+  }
+
+  @Benchmark
+  public int fragmentedLargeBulk() {
+    for (Buffer chunk : largeBulk) {
+      parser.handle(chunk);
+    }
+    return replies;
+  }
+
+  @Benchmark
+  public int fragmentedWideMulti() {
+    for (Buffer chunk : wideMulti) {
+      parser.handle(chunk);
+    }
+    return replies;
+  }
+
+  static Buffer[] split(Buffer buffer, int chunkSize) {
+    final int chunks = (buffer.length() + chunkSize - 1) / chunkSize;
+    final Buffer[] result = new Buffer[chunks];
+    for (int i = 0; i < chunks; i++) {
+      result[i] = buffer.getBuffer(i * chunkSize, Math.min(buffer.length(), (i + 1) * chunkSize));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,103 @@
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.Response;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses recorded reply corpora delivered in a single chunk, run it with the {@code gc} profiler to also report the
+ * bytes allocated per reply.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplyParserBenchmark {
+
+  private Buffer smallInts;
+  private Buffer bulks;
+  private Buffer wideMulti;
+  private Buffer maps;
+
+  private RESPParser parser;
+  private int replies;
+
+  @Setup
+  public void setup() {
+    // 1000 small integer replies, e.g.: INCR, EXISTS, DEL
+    smallInts = Buffer.buffer();
+    for (int i = 0; i < 1000; i++) {
+      smallInts.appendString(":").appendString(Integer.toString(i % 100)).appendString("\r\n");
+    }
+
+    // 100 replies of 1KB bulk strings, e.g.: GET
+    byte[] payload = new byte[1024];
+    bulks = Buffer.buffer();
+    for (int i = 0; i < 100; i++) {
+      bulks
+        .appendString("$" + payload.length + "\r\n")
+        .appendBytes(payload)
+        .appendString("\r\n");
+    }
+
+    // a 10k elements array of small bulks, e.g.: LRANGE
+    wideMulti = Buffer.buffer().appendString("*10000\r\n");
+    for (int i = 0; i < 10000; i++) {
+      wideMulti.appendString("$8\r\nvalue:").appendString(String.format("%02d", i % 100)).appendString("\r\n");
+    }
+
+    // 100 RESP3 maps of 10 entries, e.g.: HGETALL
+    maps = Buffer.buffer();
+    for (int i = 0; i < 100; i++) {
+      maps.appendString("%10\r\n");
+      for (int j = 0; j < 10; j++) {
+        maps
+          .appendString("+field:").appendString(Integer.toString(j)).appendString("\r\n")
+          .appendString("$8\r\nvalue:").appendString(String.format("%02d", j)).appendString("\r\n");
+      }
+    }
+
+    parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        replies++;
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        throw new IllegalStateException(t);
+      }
+    }, 16);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(1000)
+  public int smallIntegers() {
+    parser.handle(smallInts);
+    return replies;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(100)
+  public int bulkStrings() {
+    parser.handle(bulks);
+    return replies;
+  }
+
+  @Benchmark
+  public int wideMulti() {
+    parser.handle(wideMulti);
+    return replies;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(100)
+  public int resp3Maps() {
+    parser.handle(maps);
+    return replies;
+  }
+}
@@ -0,0 +1,85 @@
+package io.vertx.redis.client.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.Command;
+import io.vertx.redis.client.Request;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds and encodes typical commands, run it with the {@code gc} profiler to also report the bytes allocated per
+ * request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestEncodeBenchmark {
+
+  @Param({"16", "1024", "65536"})
+  public int valueSize;
+
+  private Buffer value;
+  private String[] fields;
+
+  @Setup
+  public void setup() {
+    value = Buffer.buffer(new byte[valueSize]);
+    fields = new String[20];
+    for (int i = 0; i < fields.length; i++) {
+      fields[i] = "field:" + i;
+    }
+  }
+
+  @Benchmark
+  public int get() {
+    return write(Request.cmd(Command.GET).arg("user:1000:session"));
+  }
+
+  @Benchmark
+  public int set() {
+    return write(Request.cmd(Command.SET).arg("user:1000:session").arg(value).arg("EX").arg(3600));
+  }
+
+  @Benchmark
+  public int incrBy() {
+    return write(Request.cmd(Command.INCRBY).arg("counter:visits").arg(1234567L));
+  }
+
+  @Benchmark
+  public int hset() {
+    final Request request = Request.cmd(Command.HSET).arg("user:1000");
+    for (String field : fields) {
+      request.arg(field).arg(value);
+    }
+    return write(request);
+  }
+
+  @Benchmark
+  public int batch() {
+    // pipelined requests are encoded to a single buffer
+    final List<Request> requests = new ArrayList<>(10);
+    for (int i = 0; i < 10; i++) {
+      requests.add(Request.cmd(Command.SET).arg(fields[i]).arg(value));
+    }
+    final ByteBuf messages = RequestImpl.encode(PooledByteBufAllocator.DEFAULT, requests);
+    final int length = messages.readableBytes();
+    messages.release();
+    return length;
+  }
+
+  private static int write(Request request) {
+    // as written to the socket
+    final ByteBuf message = ((RequestImpl) request).encode(PooledByteBufAllocator.DEFAULT);
+    final int length = message.readableBytes();
+    message.release();
+    return length;
+  }
+}
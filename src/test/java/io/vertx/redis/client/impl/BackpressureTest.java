@@ -0,0 +1,112 @@
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.redis.client.Redis;
+import io.vertx.redis.client.RedisOptions;
+import io.vertx.redis.client.Response;
+import io.vertx.redis.client.impl.types.ErrorType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.vertx.redis.client.Command.*;
+import static io.vertx.redis.client.Request.cmd;
+
+/**
+ * Requests parked while the waiting queue is full, against the {@link RESPServer}.
+ */
+@RunWith(VertxUnitRunner.class)
+public class BackpressureTest {
+
+  @Rule
+  public final RunTestOnContext rule = new RunTestOnContext();
+
+  private RESPServer server;
+  private Redis client;
+
+  @Before
+  public void before(TestContext should) {
+    server = new RESPServer(rule.vertx());
+    server.listen(0)
+      .onComplete(should.asyncAssertSuccess(s -> client = Redis.createClient(rule.vertx(), new RedisOptions()
+        .setConnectionString(server.endpoint())
+        .setMaxWaitingHandlers(2)
+        .setMaxPendingRequests(8))));
+  }
+
+  @After
+  public void after(TestContext should) {
+    client.close();
+    server.close().onComplete(should.asyncAssertSuccess());
+  }
+
+  @Test(timeout = 30_000)
+  public void testMaxPendingRequests(TestContext should) {
+    final Async test = should.async();
+
+    client.connect()
+      .onComplete(should.asyncAssertSuccess(conn -> {
+        final List<Future> replies = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+          replies.add(conn.send(cmd(INCR).arg("counter")));
+        }
+        // the waiting queue is full and requests are held
+        should.assertTrue(conn.writeQueueFull());
+        conn.drainHandler(v -> CompositeFuture.all(replies)
+          .onComplete(should.asyncAssertSuccess(all -> {
+            // held requests were sent in order
+            for (int i = 0; i < 10; i++) {
+              should.assertEquals(i + 1, all.<Response>resultAt(i).toInteger());
+            }
+            conn.close();
+            test.complete();
+          })));
+        // beyond the held requests, requests still fail
+        conn.send(cmd(INCR).arg("counter"))
+          .onComplete(should.asyncAssertFailure(err -> should.assertEquals("Redis waiting Queue is full", err.getMessage())));
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testParkedRequestsRejectedOnClose(TestContext should) {
+    final Async test = should.async();
+
+    // the replies are not received before the server closes the connection
+    server.latency(500);
+
+    client.connect()
+      .onComplete(should.asyncAssertSuccess(conn -> {
+        final Future<Response> waiting = conn.send(cmd(INCR).arg("counter"));
+        conn.send(cmd(QUIT));
+        // parked behind the full waiting queue
+        final Future<Response> parked1 = conn.send(cmd(INCR).arg("counter"));
+        final Future<Response> parked2 = conn.send(cmd(INCR).arg("counter"));
+        should.assertTrue(conn.writeQueueFull());
+
+        CompositeFuture.join(waiting, parked1, parked2)
+          .onComplete(should.asyncAssertFailure(v -> {
+            should.assertTrue(waiting.failed());
+            // the parked requests were never written, they fail with the connection
+            should.assertTrue(((ErrorType) parked1.cause()).is("CONNECTION_CLOSED"));
+            should.assertTrue(((ErrorType) parked2.cause()).is("CONNECTION_CLOSED"));
+            // a new connection is opened for the next request
+            client.send(cmd(GET).arg("counter"))
+              .onComplete(should.asyncAssertSuccess(value -> {
+                should.assertNull(value);
+                should.assertEquals(2, server.connections());
+                test.complete();
+              }));
+          }));
+      }));
+  }
+}
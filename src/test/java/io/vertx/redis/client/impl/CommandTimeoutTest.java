@@ -0,0 +1,127 @@
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.redis.client.Redis;
+import io.vertx.redis.client.RedisOptions;
+import io.vertx.redis.client.Response;
+import io.vertx.redis.client.impl.types.ErrorType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static io.vertx.redis.client.Command.*;
+import static io.vertx.redis.client.Request.cmd;
+
+/**
+ * Commands timing out on a slow server, against the {@link RESPServer}.
+ */
+@RunWith(VertxUnitRunner.class)
+public class CommandTimeoutTest {
+
+  @Rule
+  public final RunTestOnContext rule = new RunTestOnContext();
+
+  private RESPServer server;
+  private Redis client;
+
+  @Before
+  public void before(TestContext should) {
+    server = new RESPServer(rule.vertx());
+    server.listen(0).onComplete(should.asyncAssertSuccess());
+  }
+
+  @After
+  public void after(TestContext should) {
+    if (client != null) {
+      client.close();
+    }
+    server.close().onComplete(should.asyncAssertSuccess());
+  }
+
+  @Test(timeout = 30_000)
+  public void testCommandTimeout(TestContext should) {
+    final Async test = should.async();
+
+    client = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setConnectionString(server.endpoint())
+      .setCommandTimeout(100));
+
+    client.connect()
+      .onComplete(should.asyncAssertSuccess(conn -> {
+        // the handshake is not delayed
+        server.latency(500);
+        final long start = System.currentTimeMillis();
+        conn.send(cmd(GET).arg("key"))
+          .onComplete(should.asyncAssertFailure(err -> {
+            should.assertTrue(((ErrorType) err).is("TIMEOUT"));
+            should.assertTrue(System.currentTimeMillis() - start < 500);
+            // the late reply is discarded, the connection is still usable
+            conn.send(cmd(SET).arg("key").arg("value").timeout(0))
+              .onComplete(should.asyncAssertSuccess(ok -> {
+                should.assertEquals("OK", ok.toString());
+                conn.close();
+                test.complete();
+              }));
+          }));
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testRequestTimeout(TestContext should) {
+    final Async test = should.async();
+
+    // no timeout by default, only the request sets one
+    client = Redis.createClient(rule.vertx(), server.endpoint());
+
+    client.connect()
+      .onComplete(should.asyncAssertSuccess(conn -> {
+        server.latency(500);
+        conn.send(cmd(GET).arg("key").timeout(100))
+          .onComplete(should.asyncAssertFailure(err -> {
+            should.assertTrue(((ErrorType) err).is("TIMEOUT"));
+            conn.close();
+            test.complete();
+          }));
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testCloseOnCommandTimeout(TestContext should) {
+    final Async test = should.async();
+    final Async closed = should.async();
+
+    client = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setConnectionString(server.endpoint())
+      .setCommandTimeout(100)
+      .setCloseOnCommandTimeout(true));
+
+    client.connect()
+      .onComplete(should.asyncAssertSuccess(conn -> {
+        conn.endHandler(v -> closed.complete());
+        server.latency(500);
+        final Future<Response> expired = conn.send(cmd(GET).arg("key"));
+        // no timeout of its own, it fails when the connection is closed
+        final Future<Response> pending = conn.send(cmd(SET).arg("key").arg("value").timeout(0));
+
+        CompositeFuture.join(expired, pending)
+          .onComplete(should.asyncAssertFailure(v -> {
+            should.assertTrue(((ErrorType) expired.cause()).is("TIMEOUT"));
+            should.assertTrue(((ErrorType) pending.cause()).is("CONNECTION_CLOSED"));
+            // the connection was evicted, the next request opens a new one
+            server.latency(0);
+            client.send(cmd(PING))
+              .onComplete(should.asyncAssertSuccess(pong -> {
+                should.assertEquals(2, server.connections());
+                test.complete();
+              }));
+          }));
+      }));
+  }
+}
@@ -0,0 +1,285 @@
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.redis.client.Redis;
+import io.vertx.redis.client.RedisOptions;
+import io.vertx.redis.client.impl.types.ErrorType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.vertx.redis.client.Command.*;
+import static io.vertx.redis.client.Request.cmd;
+
+/**
+ * How the pool opens, shares and recycles connections, against the {@link RESPServer}.
+ */
+@RunWith(VertxUnitRunner.class)
+public class ConnectionPoolTest {
+
+  @Rule
+  public final RunTestOnContext rule = new RunTestOnContext();
+
+  private RESPServer server;
+  private Redis client;
+
+  @Before
+  public void before(TestContext should) {
+    server = new RESPServer(rule.vertx());
+    server.listen(0).onComplete(should.asyncAssertSuccess());
+  }
+
+  @After
+  public void after(TestContext should) {
+    if (client != null) {
+      client.close();
+    }
+    server.close().onComplete(should.asyncAssertSuccess());
+  }
+
+  @Test(timeout = 30_000)
+  public void testMultiplexedConnections(TestContext should) {
+    final Async test = should.async();
+
+    client = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setConnectionString(server.endpoint())
+      .setMaxPoolSize(8)
+      .setMultiplexedConnections(2));
+
+    final List<Future> replies = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      replies.add(client.send(cmd(INCR).arg("counter")));
+    }
+
+    CompositeFuture.all(replies)
+      .compose(all -> client.send(cmd(GET).arg("counter")))
+      .onComplete(should.asyncAssertSuccess(value -> {
+        should.assertEquals(100, value.toInteger());
+        // all the sends were pipelined over the shared connections
+        should.assertEquals(2, server.connections());
+        test.complete();
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testMultiplexedExclusiveCommand(TestContext should) {
+    final Async test = should.async();
+
+    client = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setConnectionString(server.endpoint())
+      .setMaxPoolSize(8)
+      .setMultiplexedConnections(1));
+
+    client.send(cmd(SET).arg("key").arg("value"))
+      // SELECT would change the database of the other callers, it leases a connection of its own
+      .compose(ok -> client.send(cmd(SELECT).arg(0)))
+      .onComplete(should.asyncAssertSuccess(ok -> {
+        should.assertEquals(2, server.connections());
+        test.complete();
+      }));
+  }
+
+  @Test
+  public void testMultiplexedConnectionsExceedPool(TestContext should) {
+    try {
+      // no connection would be left for the requests that cannot be shared
+      Redis.createClient(rule.vertx(), new RedisOptions()
+        .setConnectionString(server.endpoint())
+        .setMaxPoolSize(2)
+        .setMultiplexedConnections(2));
+      should.fail("The client should not be created");
+    } catch (IllegalStateException e) {
+      should.assertEquals("Invalid options: multiplexedConnections >= maxSize", e.getMessage());
+    }
+  }
+
+  @Test(timeout = 30_000)
+  public void testEventLoopAffinity(TestContext should) {
+    final Async test = should.async();
+
+    final RedisOptions options = new RedisOptions()
+      .setConnectionString(server.endpoint())
+      .setMaxPoolSize(1);
+    options.getPoolOptions().setEventLoopAffinity(true);
+    client = Redis.createClient(rule.vertx(), options);
+
+    final VertxInternal vertx = (VertxInternal) rule.vertx();
+    final ContextInternal ctx1 = vertx.createEventLoopContext();
+    final ContextInternal ctx2 = vertx.createEventLoopContext();
+    should.assertNotEquals(ctx1.nettyEventLoop(), ctx2.nettyEventLoop());
+
+    ctx1.runOnContext(v1 -> client.connect()
+      .onComplete(should.asyncAssertSuccess(conn1 -> ctx2.runOnContext(v2 -> client.connect()
+        // the pool of each event loop has its own connection
+        .onComplete(should.asyncAssertSuccess(conn2 -> {
+          should.assertEquals(2, server.connections());
+          conn1.close();
+          conn2.close();
+          test.complete();
+        }))))));
+  }
+
+  @Test(timeout = 30_000)
+  public void testMinIdle(TestContext should) {
+    final Async test = should.async();
+
+    final RedisOptions options = new RedisOptions()
+      .setConnectionString(server.endpoint())
+      .setPoolCleanerInterval(100);
+    options.getPoolOptions().setMinIdle(3);
+    client = Redis.createClient(rule.vertx(), options);
+
+    // the first request makes the endpoint known
+    client.send(cmd(PING))
+      .onComplete(should.asyncAssertSuccess(pong -> rule.vertx().setPeriodic(50, id -> {
+        // the cleaner opens the missing connections
+        if (server.connections() == 3) {
+          rule.vertx().cancelTimer(id);
+          // the next cleanups find the pool warm, no more connections are opened
+          rule.vertx().setTimer(300, t -> {
+            should.assertEquals(3, server.connections());
+            test.complete();
+          });
+        }
+      })));
+  }
+
+  @Test(timeout = 30_000)
+  public void testMinIdleWithLeasedConnection(TestContext should) {
+    final Async test = should.async();
+
+    final RedisOptions options = new RedisOptions()
+      .setConnectionString(server.endpoint())
+      .setMaxPoolSize(2)
+      .setPoolCleanerInterval(100);
+    options.getPoolOptions().setMinIdle(2);
+    client = Redis.createClient(rule.vertx(), options);
+
+    // the leased connection is not idle, and stays leased during the warm up
+    client.connect()
+      .onComplete(should.asyncAssertSuccess(conn -> rule.vertx().setPeriodic(50, id -> {
+        // the cleaner opens a single connection, the pool has no room for the other one
+        if (server.connections() == 2) {
+          rule.vertx().cancelTimer(id);
+          rule.vertx().setTimer(300, t -> {
+            should.assertEquals(2, server.connections());
+            // the warm up neither waits for the leased connection nor holds the idle one
+            client.send(cmd(PING))
+              .onComplete(should.asyncAssertSuccess(pong -> {
+                conn.close();
+                test.complete();
+              }));
+          });
+        }
+      })));
+  }
+
+  @Test(timeout = 30_000)
+  public void testRestoreSelect(TestContext should) {
+    final Async test = should.async();
+
+    client = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setConnectionString(server.endpoint())
+      .setMaxPoolSize(1));
+
+    client.send(cmd(SET).arg("key").arg("db0"))
+      .compose(ok -> client.connect())
+      .compose(conn -> conn.send(cmd(SELECT).arg(2))
+        .compose(ok -> conn.send(cmd(SET).arg("key").arg("db2")))
+        .compose(ok -> conn.close()))
+      // the database is restored, the connection is not replaced
+      .compose(v -> client.send(cmd(GET).arg("key")))
+      .onComplete(should.asyncAssertSuccess(value -> {
+        should.assertEquals("db0", value.toString());
+        should.assertEquals(1, server.connections());
+        test.complete();
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testRestorePubSub(TestContext should) {
+    final Async test = should.async();
+
+    client = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setConnectionString(server.endpoint())
+      .setMaxPoolSize(1));
+
+    client.connect()
+      .compose(conn -> conn.send(cmd(SUBSCRIBE).arg("news"))
+        .compose(ok -> conn.close()))
+      // the subscription is left by a RESET, the connection is not replaced
+      .compose(v -> client.send(cmd(PUBLISH).arg("news").arg("hello")))
+      .onComplete(should.asyncAssertSuccess(receivers -> {
+        should.assertEquals(0, receivers.toInteger());
+        should.assertEquals(1, server.connections());
+        test.complete();
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testRestorePubSubWithoutReset(TestContext should) {
+    final Async test = should.async();
+
+    // older than 6.0, RESET is not supported
+    server.legacy();
+    client = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setConnectionString(server.endpoint())
+      .setMaxPoolSize(1));
+
+    client.connect()
+      .compose(conn -> conn.send(cmd(SUBSCRIBE).arg("news"))
+        .compose(ok -> conn.close()))
+      // the connection is closed, the next request opens a new one
+      .compose(v -> client.send(cmd(PING)))
+      .onComplete(should.asyncAssertSuccess(pong -> {
+        should.assertEquals(2, server.connections());
+        test.complete();
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testRestoreFailure(TestContext should) {
+    final Async test = should.async();
+
+    server.password("secret");
+    client = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setConnectionString(server.endpoint())
+      .setPassword("secret")
+      .setMaxPoolSize(1));
+
+    client.connect()
+      .compose(conn -> conn.send(cmd(AUTH).arg("secret"))
+        .compose(ok -> conn.close()))
+      .onComplete(should.asyncAssertSuccess(v -> {
+        // the AUTH restoring the session fails
+        server.password("changed");
+        client.send(cmd(SET).arg("key").arg("value"))
+          .onComplete(should.asyncAssertFailure(err -> {
+            // the request was parked behind the restore, it fails with its error
+            should.assertTrue(((ErrorType) err).is("WRONGPASS"));
+            final Redis other = Redis.createClient(rule.vertx(), new RedisOptions()
+              .setConnectionString(server.endpoint())
+              .setPassword("changed"));
+            other.send(cmd(GET).arg("key"))
+              .onComplete(should.asyncAssertSuccess(value -> {
+                // and was never written
+                should.assertNull(value);
+                other.close();
+                test.complete();
+              }));
+          }));
+      }));
+  }
+}
@@ -0,0 +1,147 @@
+package io.vertx.redis.client.impl;
+
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.redis.client.Redis;
+import io.vertx.redis.client.RedisOptions;
+import io.vertx.redis.client.impl.types.ErrorType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import static io.vertx.redis.client.Command.*;
+import static io.vertx.redis.client.Request.cmd;
+
+/**
+ * The connection handshake and its fallbacks, against the {@link RESPServer}.
+ */
+@RunWith(VertxUnitRunner.class)
+public class HandshakeTest {
+
+  @Rule
+  public final RunTestOnContext rule = new RunTestOnContext();
+
+  private RESPServer server;
+  private Redis client;
+
+  @Before
+  public void before(TestContext should) {
+    server = new RESPServer(rule.vertx());
+    server.listen(0).onComplete(should.asyncAssertSuccess());
+  }
+
+  @After
+  public void after(TestContext should) {
+    if (client != null) {
+      client.close();
+    }
+    server.close().onComplete(should.asyncAssertSuccess());
+  }
+
+  @Test(timeout = 30_000)
+  public void testPipelinedHandshake(TestContext should) {
+    final Async test = should.async();
+
+    server.latency(300);
+    client = Redis.createClient(rule.vertx(), server.endpoint() + "/1");
+
+    final long start = System.currentTimeMillis();
+    client.connect()
+      .onComplete(should.asyncAssertSuccess(conn -> {
+        // HELLO, SELECT and CLIENT SETINFO were written at once, a single round trip
+        should.assertTrue(System.currentTimeMillis() - start < 600);
+        should.assertTrue(server.commands().contains("CLIENT"));
+        conn.close();
+        test.complete();
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testHelloAuth(TestContext should) {
+    final Async test = should.async();
+
+    server.password("secret");
+    client = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setConnectionString(server.endpoint() + "/1")
+      .setPassword("secret"));
+
+    client.send(cmd(SET).arg("key").arg("value"))
+      .onComplete(should.asyncAssertSuccess(ok -> {
+        should.assertEquals("OK", ok.toString());
+        test.complete();
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testWrongPassword(TestContext should) {
+    final Async test = should.async();
+
+    server.password("secret");
+    client = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setConnectionString(server.endpoint())
+      .setPassword("wrong"));
+
+    client.connect()
+      .onComplete(should.asyncAssertFailure(err -> {
+        should.assertTrue(((ErrorType) err).is("WRONGPASS"));
+        test.complete();
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testFallbackToPing(TestContext should) {
+    final Async test = should.async();
+
+    // HELLO fails as an unknown command, the SELECT pipelined after it succeeded
+    server.legacy();
+    client = Redis.createClient(rule.vertx(), server.endpoint() + "/1");
+
+    client.send(cmd(SET).arg("key").arg("value"))
+      .onComplete(should.asyncAssertSuccess(ok -> {
+        should.assertEquals("OK", ok.toString());
+        // it is not sent again
+        should.assertEquals(1, Collections.frequency(server.commands(), "SELECT"));
+        test.complete();
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testFallbackToAuth(TestContext should) {
+    final Async test = should.async();
+
+    // HELLO is unknown and PING requires the authentication, the SELECT failed with NOAUTH and is sent again
+    server.legacy().password("secret");
+    client = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setConnectionString(server.endpoint() + "/1")
+      .setPassword("secret"));
+
+    client.send(cmd(SET).arg("key").arg("value"))
+      .onComplete(should.asyncAssertSuccess(ok -> {
+        should.assertEquals("OK", ok.toString());
+        should.assertEquals(2, Collections.frequency(server.commands(), "SELECT"));
+        test.complete();
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testFallbackWithoutPassword(TestContext should) {
+    final Async test = should.async();
+
+    server.legacy().password("secret");
+    client = Redis.createClient(rule.vertx(), server.endpoint());
+
+    // the handshake cannot authenticate, the commands are refused by the server. CLIENT SETINFO is refused as well,
+    // which does not fail the handshake
+    client.send(cmd(SET).arg("key").arg("value"))
+      .onComplete(should.asyncAssertFailure(err -> {
+        should.assertTrue(((ErrorType) err).is("NOAUTH"));
+        test.complete();
+      }));
+  }
+}
@@ -0,0 +1,204 @@
+package io.vertx.redis.client.impl;
+
+import io.netty.channel.EventLoop;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.redis.client.Redis;
+import io.vertx.redis.client.RedisOptions;
+import io.vertx.redis.client.Request;
+import io.vertx.redis.client.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.vertx.redis.client.Command.*;
+import static io.vertx.redis.client.Request.cmd;
+
+/**
+ * Auto pipelining, batches and sends from other threads, against the {@link RESPServer}.
+ */
+@RunWith(VertxUnitRunner.class)
+public class PipeliningTest {
+
+  @Rule
+  public final RunTestOnContext rule = new RunTestOnContext();
+
+  private RESPServer server;
+  private Redis client;
+
+  @Before
+  public void before(TestContext should) {
+    server = new RESPServer(rule.vertx());
+    server.listen(0).onComplete(should.asyncAssertSuccess());
+  }
+
+  @After
+  public void after(TestContext should) {
+    if (client != null) {
+      client.close();
+    }
+    server.close().onComplete(should.asyncAssertSuccess());
+  }
+
+  @Test(timeout = 30_000)
+  public void testAutoPipelining(TestContext should) {
+    final Async test = should.async();
+
+    client = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setConnectionString(server.endpoint())
+      .setAutoPipelining(true)
+      // a few flushes before the end of the event loop task
+      .setAutoPipeliningLimit(256));
+
+    client.connect()
+      .onComplete(should.asyncAssertSuccess(conn -> {
+        final List<Future> replies = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+          replies.add(conn.send(cmd(INCR).arg("counter")));
+        }
+
+        CompositeFuture.all(replies)
+          .onComplete(should.asyncAssertSuccess(all -> {
+            // the replies are in the order of the requests
+            for (int i = 0; i < 100; i++) {
+              should.assertEquals(i + 1, all.<Response>resultAt(i).toInteger());
+            }
+            conn.close();
+            test.complete();
+          }));
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testAutoPipeliningCommands(TestContext should) {
+    final Async test = should.async();
+
+    client = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setConnectionString(server.endpoint())
+      .setAutoPipelining(true)
+      .setAutoPipeliningCommands(10));
+
+    // the server reads the first flush while the client is still busy, so they run on different event loops
+    otherEventLoop().runOnContext(v -> client.connect()
+      .onComplete(should.asyncAssertSuccess(conn -> {
+        final int from = server.reads().size();
+        final List<Future> replies = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+          replies.add(conn.send(cmd(INCR).arg("counter")));
+          if (i == 9) {
+            // the first requests were flushed by the command limit, the others wait for the end of this task
+            sleep(200);
+          }
+        }
+
+        CompositeFuture.all(replies)
+          .onComplete(should.asyncAssertSuccess(all -> {
+            should.assertEquals(Arrays.asList(10, 5), server.reads().subList(from, server.reads().size()));
+            conn.close();
+            test.complete();
+          }));
+      })));
+  }
+
+  @Test(timeout = 30_000)
+  public void testSendFromOtherThread(TestContext should) {
+    final Async test = should.async();
+
+    client = Redis.createClient(rule.vertx(), server.endpoint());
+
+    client.connect()
+      .onComplete(should.asyncAssertSuccess(conn -> {
+        // the requests are handed off to the event loop of the connection
+        new Thread(() -> {
+          final List<Future> replies = new ArrayList<>();
+          for (int i = 0; i < 100; i++) {
+            replies.add(conn.send(cmd(INCR).arg("counter")));
+          }
+
+          CompositeFuture.all(replies)
+            .onComplete(should.asyncAssertSuccess(all -> {
+              // the order of the requests of a thread is kept
+              for (int i = 0; i < 100; i++) {
+                should.assertEquals(i + 1, all.<Response>resultAt(i).toInteger());
+              }
+              conn.close();
+              test.complete();
+            }));
+        }).start();
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testBatch(TestContext should) {
+    final Async test = should.async();
+
+    client = Redis.createClient(rule.vertx(), server.endpoint());
+
+    final List<Request> batch = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      batch.add(cmd(INCR).arg("counter"));
+    }
+
+    client.batch(batch)
+      .onComplete(should.asyncAssertSuccess(replies -> {
+        // the replies are stored by index
+        should.assertEquals(1000, replies.size());
+        for (int i = 0; i < 1000; i++) {
+          should.assertEquals(i + 1, replies.get(i).toInteger());
+        }
+        test.complete();
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testBatchFailure(TestContext should) {
+    final Async test = should.async();
+
+    client = Redis.createClient(rule.vertx(), server.endpoint());
+
+    client.batch(Arrays.asList(
+        cmd(SET).arg("key").arg("value"),
+        cmd(INCR).arg("key"),
+        cmd(GET).arg("key")))
+      .onComplete(should.asyncAssertFailure(err -> {
+        // the index of the failed request is reported
+        should.assertEquals("ERR [1] value is not an integer or out of range", err.getMessage());
+        // the connection is still usable
+        client.send(cmd(GET).arg("key"))
+          .onComplete(should.asyncAssertSuccess(value -> {
+            should.assertEquals("value", value.toString());
+            test.complete();
+          }));
+      }));
+  }
+
+  private ContextInternal otherEventLoop() {
+    final VertxInternal vertx = (VertxInternal) rule.vertx();
+    final EventLoop current = ((ContextInternal) vertx.getOrCreateContext()).nettyEventLoop();
+    ContextInternal context;
+    do {
+      context = vertx.createEventLoopContext();
+    } while (context.nettyEventLoop() == current);
+    return context;
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,965 @@
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.NetServer;
+import io.vertx.core.net.NetSocket;
+import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * A lightweight in-process RESP2/RESP3 server standing in for Redis, so that tests and benchmarks can run without
+ * Docker or network access. Requests are parsed with the client {@link RESPParser}.
+ * <p>
+ * A subset of the commands is implemented over an in-memory keyspace shared by all connections: strings, hashes,
+ * lists and pub/sub. The server can also act as a cluster node, publishing its slots with {@code CLUSTER SLOTS} and
+ * redirecting slots with {@code MOVED} and {@code ASK}, or as a sentinel for a master and its replicas. Replies can be
+ * delayed to emulate network latency.
+ * <p>
+ * All the connections are handled on the event loop of the server, so the keyspace is not synchronized.
+ */
+public final class RESPServer {
+
+  // commands whose first argument is not a key
+  private static final Set<String> KEYLESS = new HashSet<>(Arrays.asList(
+    "PING", "ECHO", "HELLO", "AUTH", "SELECT", "CLIENT", "READONLY", "READWRITE", "ASKING", "QUIT", "INFO",
+    "SUBSCRIBE", "UNSUBSCRIBE", "PSUBSCRIBE", "PUNSUBSCRIBE", "PUBLISH", "CLUSTER", "SENTINEL", "FLUSHALL",
+    "FLUSHDB", "DBSIZE"));
+
+  private final Vertx vertx;
+
+  // the keyspace of each database, values are either Buffer, Map<String, Buffer> or LinkedList<Buffer>
+  private final Map<Integer, Map<String, Object>> databases = new HashMap<>();
+  // subscribed sessions
+  private final Map<String, Set<Session>> channels = new HashMap<>();
+  private final Map<String, Set<Session>> patterns = new HashMap<>();
+
+  // cluster mode
+  private final List<Object[]> slots = new ArrayList<>();
+  private final Map<Integer, String> moved = new HashMap<>();
+  private final Map<Integer, String> ask = new HashMap<>();
+
+  // sentinel mode
+  private String masterName;
+  private String masterHost;
+  private int masterPort;
+  private final List<Object[]> replicas = new ArrayList<>();
+
+  private long latency;
+  // the password clients must authenticate with, if any
+  private String password;
+  // acts as a server older than 6.0, without HELLO
+  private boolean legacy;
+  private NetServer server;
+  // accepted connections
+  private int connections;
+  // the amount of requests parsed from each read of a socket
+  private final List<Integer> reads = new CopyOnWriteArrayList<>();
+  // the commands received from all the connections
+  private final List<String> commands = new CopyOnWriteArrayList<>();
+
+  public RESPServer(Vertx vertx) {
+    this.vertx = vertx;
+  }
+
+  /**
+   * Delays every reply by the given amount of milliseconds, the order of the replies is preserved.
+   */
+  public RESPServer latency(long millis) {
+    this.latency = millis;
+    return this;
+  }
+
+  /**
+   * Requires clients to authenticate with the given password, other commands fail with {@code NOAUTH} until then.
+   */
+  public RESPServer password(String password) {
+    this.password = password;
+    return this;
+  }
+
+  /**
+   * Acts as a server older than 6.0, which fails {@code HELLO} as an unknown command.
+   */
+  public RESPServer legacy() {
+    this.legacy = true;
+    return this;
+  }
+
+  /**
+   * Publishes a range of slots served by the given node, which enables cluster mode.
+   */
+  public RESPServer slots(int start, int end, String host, int port) {
+    slots.add(new Object[]{start, end, host, port});
+    return this;
+  }
+
+  /**
+   * Replies with a {@code MOVED} redirection to the given {@code host:port} for keys in the slot.
+   */
+  public RESPServer moved(int slot, String endpoint) {
+    moved.put(slot, endpoint);
+    return this;
+  }
+
+  /**
+   * Replies with an {@code ASK} redirection to the given {@code host:port} for keys in the slot, unless the request is
+   * preceded by {@code ASKING}.
+   */
+  public RESPServer ask(int slot, String endpoint) {
+    ask.put(slot, endpoint);
+    return this;
+  }
+
+  /**
+   * Acts as a sentinel monitoring the given master.
+   */
+  public RESPServer sentinel(String masterName, String host, int port) {
+    this.masterName = masterName;
+    this.masterHost = host;
+    this.masterPort = port;
+    return this;
+  }
+
+  /**
+   * Adds a replica of the master monitored by this sentinel.
+   */
+  public RESPServer replica(String host, int port) {
+    replicas.add(new Object[]{host, port});
+    return this;
+  }
+
+  /**
+   * Starts listening on the given port, {@code 0} picks a random port.
+   */
+  public Future<RESPServer> listen(int port) {
+    server = vertx.createNetServer()
+      .connectHandler(socket -> {
+        connections++;
+        final Session session = new Session(socket);
+        final RESPParser parser = new RESPParser(session, 16);
+        socket
+          .handler(chunk -> {
+            final int before = session.received;
+            parser.handle(chunk);
+            reads.add(session.received - before);
+          })
+          .closeHandler(v -> session.close());
+      });
+
+    return server
+      .listen(port, "localhost")
+      .map(this);
+  }
+
+  /**
+   * The number of connections accepted so far.
+   */
+  public int connections() {
+    return connections;
+  }
+
+  /**
+   * The amount of requests parsed from each read of a socket, in order, which shows how the requests were written.
+   */
+  public List<Integer> reads() {
+    return reads;
+  }
+
+  /**
+   * The commands received so far from all the connections, in order.
+   */
+  public List<String> commands() {
+    return commands;
+  }
+
+  public int port() {
+    return server.actualPort();
+  }
+
+  /**
+   * The connection string of this server.
+   */
+  public String endpoint() {
+    return "redis://localhost:" + port();
+  }
+
+  public Future<Void> close() {
+    return server.close();
+  }
+
+  private Map<String, Object> database(int index) {
+    if (index < 0 || index > 15) {
+      throw new IllegalStateException("ERR DB index is out of range");
+    }
+    return databases.computeIfAbsent(index, k -> new HashMap<>());
+  }
+
+  private int publish(String channel, Buffer message) {
+    int receivers = 0;
+
+    final Set<Session> subscribers = channels.get(channel);
+    if (subscribers != null) {
+      for (Session session : subscribers) {
+        final Reply reply = session.reply().push(3).bulk("message").bulk(channel).bulk(message);
+        session.write(reply.buffer);
+        receivers++;
+      }
+    }
+
+    for (Map.Entry<String, Set<Session>> kv : patterns.entrySet()) {
+      if (glob(kv.getKey()).matcher(channel).matches()) {
+        for (Session session : kv.getValue()) {
+          final Reply reply = session.reply().push(4).bulk("pmessage").bulk(kv.getKey()).bulk(channel).bulk(message);
+          session.write(reply.buffer);
+          receivers++;
+        }
+      }
+    }
+
+    return receivers;
+  }
+
+  private static Pattern glob(String pattern) {
+    final StringBuilder regex = new StringBuilder();
+    for (char c : pattern.toCharArray()) {
+      switch (c) {
+        case '*':
+          regex.append(".*");
+          break;
+        case '?':
+          regex.append('.');
+          break;
+        default:
+          regex.append(Pattern.quote(Character.toString(c)));
+          break;
+      }
+    }
+    return Pattern.compile(regex.toString());
+  }
+
+  /**
+   * Encodes a reply in the protocol version of a session.
+   */
+  private static final class Reply {
+
+    final Buffer buffer = Buffer.buffer();
+    final boolean resp3;
+
+    Reply(boolean resp3) {
+      this.resp3 = resp3;
+    }
+
+    Reply simple(String value) {
+      buffer.appendByte((byte) '+').appendString(value).appendString("\r\n");
+      return this;
+    }
+
+    Reply error(String value) {
+      buffer.appendByte((byte) '-').appendString(value).appendString("\r\n");
+      return this;
+    }
+
+    Reply integer(long value) {
+      buffer.appendByte((byte) ':').appendString(Long.toString(value)).appendString("\r\n");
+      return this;
+    }
+
+    Reply bulk(String value) {
+      return bulk(Buffer.buffer(value, "UTF-8"));
+    }
+
+    Reply bulk(Buffer value) {
+      if (value == null) {
+        return nil();
+      }
+      buffer.appendByte((byte) '$').appendString(Integer.toString(value.length())).appendString("\r\n")
+        .appendBuffer(value).appendString("\r\n");
+      return this;
+    }
+
+    Reply nil() {
+      buffer.appendString(resp3 ? "_\r\n" : "$-1\r\n");
+      return this;
+    }
+
+    Reply array(int size) {
+      buffer.appendByte((byte) '*').appendString(Integer.toString(size)).appendString("\r\n");
+      return this;
+    }
+
+    Reply map(int size) {
+      if (resp3) {
+        buffer.appendByte((byte) '%').appendString(Integer.toString(size)).appendString("\r\n");
+        return this;
+      }
+      return array(size * 2);
+    }
+
+    Reply push(int size) {
+      if (resp3) {
+        buffer.appendByte((byte) '>').appendString(Integer.toString(size)).appendString("\r\n");
+        return this;
+      }
+      return array(size);
+    }
+  }
+
+  private final class Session implements ParserHandler {
+
+    private final NetSocket socket;
+    private final Set<String> subscriptions = new HashSet<>();
+    private final Set<String> psubscriptions = new HashSet<>();
+    // replies waiting for the latency to elapse, in order, with their deadline
+    private final Deque<Object[]> delayed = new ArrayDeque<>();
+    private long timer = -1;
+
+    private boolean resp3;
+    private boolean asking;
+    private boolean authenticated;
+    // the amount of requests received so far
+    private int received;
+    // the keyspace of the selected database
+    private Map<String, Object> data = database(0);
+
+    Session(NetSocket socket) {
+      this.socket = socket;
+    }
+
+    Reply reply() {
+      return new Reply(resp3);
+    }
+
+    void write(Buffer buffer) {
+      if (latency == 0) {
+        socket.write(buffer);
+        return;
+      }
+      delayed.add(new Object[]{System.currentTimeMillis() + latency, buffer});
+      if (timer == -1) {
+        schedule();
+      }
+    }
+
+    private void schedule() {
+      final long deadline = (long) delayed.peek()[0];
+      timer = vertx.setTimer(Math.max(1, deadline - System.currentTimeMillis()), t -> {
+        final long now = System.currentTimeMillis();
+        while (!delayed.isEmpty() && (long) delayed.peek()[0] <= now) {
+          socket.write((Buffer) delayed.poll()[1]);
+        }
+        timer = -1;
+        if (!delayed.isEmpty()) {
+          schedule();
+        }
+      });
+    }
+
+    void close() {
+      if (timer != -1) {
+        vertx.cancelTimer(timer);
+      }
+      unsubscribeAll();
+    }
+
+    private void unsubscribeAll() {
+      for (String channel : subscriptions) {
+        unsubscribe(channels, channel);
+      }
+      for (String pattern : psubscriptions) {
+        unsubscribe(patterns, pattern);
+      }
+      subscriptions.clear();
+      psubscriptions.clear();
+    }
+
+    private void unsubscribe(Map<String, Set<Session>> subscribers, String name) {
+      final Set<Session> sessions = subscribers.get(name);
+      if (sessions != null) {
+        sessions.remove(this);
+        if (sessions.isEmpty()) {
+          subscribers.remove(name);
+        }
+      }
+    }
+
+    @Override
+    public void handle(Response request) {
+      received++;
+      if (request == null || request.type() != ResponseType.MULTI || request.size() == 0) {
+        write(reply().error("ERR Protocol error: expected a command").buffer);
+        return;
+      }
+
+      final List<Buffer> args = new ArrayList<>(request.size());
+      for (Response arg : request) {
+        args.add(arg.toBuffer());
+      }
+
+      final String command = args.get(0).toString().toUpperCase(Locale.ROOT);
+      commands.add(command);
+
+      Buffer out;
+      try {
+        final Reply reply = reply();
+        if (password != null && !authenticated && !"AUTH".equals(command) && !"HELLO".equals(command)
+          && !"RESET".equals(command)) {
+          throw new IllegalStateException("NOAUTH Authentication required.");
+        }
+        if (!redirected(command, args, reply)) {
+          execute(command, args, reply);
+        }
+        out = reply.buffer;
+      } catch (RuntimeException e) {
+        out = reply().error(e.getMessage()).buffer;
+      }
+      // ASKING only applies to the next command
+      asking = "ASKING".equals(command);
+
+      if (out.length() > 0) {
+        write(out);
+      }
+      if ("QUIT".equals(command)) {
+        socket.close();
+      }
+    }
+
+    @Override
+    public void fail(Throwable t) {
+      write(reply().error("ERR Protocol error: " + t.getMessage()).buffer);
+      socket.close();
+    }
+
+    private boolean redirected(String command, List<Buffer> args, Reply reply) {
+      if (KEYLESS.contains(command) || args.size() < 2) {
+        return false;
+      }
+      final int slot = ZModem.generate(args.get(1));
+      if (moved.containsKey(slot)) {
+        reply.error("MOVED " + slot + " " + moved.get(slot));
+        return true;
+      }
+      if (ask.containsKey(slot) && !asking) {
+        reply.error("ASK " + slot + " " + ask.get(slot));
+        return true;
+      }
+      return false;
+    }
+
+    private void execute(String command, List<Buffer> args, Reply reply) {
+      switch (command) {
+        case "PING":
+          if (args.size() > 1) {
+            reply.bulk(args.get(1));
+          } else {
+            reply.simple("PONG");
+          }
+          break;
+        case "ECHO":
+          arity(args, 2);
+          reply.bulk(args.get(1));
+          break;
+        case "HELLO":
+          if (legacy) {
+            throw new IllegalStateException("ERR unknown command '" + args.get(0) + "'");
+          }
+          // the reply is encoded in the negotiated version
+          hello(args);
+          break;
+        case "AUTH":
+          if (args.size() < 2 || args.size() > 3) {
+            throw wrongArity();
+          }
+          auth(args.get(args.size() - 1));
+          reply.simple("OK");
+          break;
+        case "SELECT":
+          arity(args, 2);
+          data = database((int) integer(args.get(1)));
+          reply.simple("OK");
+          break;
+        case "RESET":
+          if (legacy) {
+            throw new IllegalStateException("ERR unknown command '" + args.get(0) + "'");
+          }
+          // back to the state of a new connection
+          unsubscribeAll();
+          resp3 = false;
+          authenticated = false;
+          data = database(0);
+          reply.simple("RESET");
+          break;
+        case "CLIENT":
+        case "READONLY":
+        case "READWRITE":
+        case "ASKING":
+        case "QUIT":
+          reply.simple("OK");
+          break;
+        case "INFO":
+          reply.bulk("# Replication\r\nrole:master\r\nconnected_slaves:0\r\n");
+          break;
+        case "FLUSHALL":
+          databases.values().forEach(Map::clear);
+          reply.simple("OK");
+          break;
+        case "FLUSHDB":
+          data.clear();
+          reply.simple("OK");
+          break;
+        case "DBSIZE":
+          reply.integer(data.size());
+          break;
+        // strings
+        case "SET":
+          set(args, reply);
+          break;
+        case "GET":
+          arity(args, 2);
+          reply.bulk(string(key(args, 1)));
+          break;
+        case "MSET":
+          if (args.size() % 2 == 0) {
+            throw wrongArity();
+          }
+          for (int i = 1; i < args.size(); i += 2) {
+            data.put(key(args, i), args.get(i + 1));
+          }
+          reply.simple("OK");
+          break;
+        case "MGET":
+          reply.array(args.size() - 1);
+          for (int i = 1; i < args.size(); i++) {
+            final Object value = data.get(key(args, i));
+            reply.bulk(value instanceof Buffer ? (Buffer) value : null);
+          }
+          break;
+        case "APPEND": {
+          arity(args, 3);
+          final Buffer value = string(key(args, 1));
+          final Buffer appended = value == null ? args.get(2).copy() : value.copy().appendBuffer(args.get(2));
+          data.put(key(args, 1), appended);
+          reply.integer(appended.length());
+          break;
+        }
+        case "STRLEN": {
+          arity(args, 2);
+          final Buffer value = string(key(args, 1));
+          reply.integer(value == null ? 0 : value.length());
+          break;
+        }
+        case "INCR":
+          arity(args, 2);
+          reply.integer(incr(key(args, 1), 1));
+          break;
+        case "DECR":
+          arity(args, 2);
+          reply.integer(incr(key(args, 1), -1));
+          break;
+        case "INCRBY":
+          arity(args, 3);
+          reply.integer(incr(key(args, 1), integer(args.get(2))));
+          break;
+        case "DECRBY":
+          arity(args, 3);
+          reply.integer(incr(key(args, 1), -integer(args.get(2))));
+          break;
+        // keys
+        case "DEL": {
+          int count = 0;
+          for (int i = 1; i < args.size(); i++) {
+            if (data.remove(key(args, i)) != null) {
+              count++;
+            }
+          }
+          reply.integer(count);
+          break;
+        }
+        case "EXISTS": {
+          int count = 0;
+          for (int i = 1; i < args.size(); i++) {
+            if (data.containsKey(key(args, i))) {
+              count++;
+            }
+          }
+          reply.integer(count);
+          break;
+        }
+        // hashes
+        case "HSET": {
+          if (args.size() < 4 || args.size() % 2 != 0) {
+            throw wrongArity();
+          }
+          final Map<String, Buffer> hash = hash(key(args, 1), true);
+          int count = 0;
+          for (int i = 2; i < args.size(); i += 2) {
+            if (hash.put(args.get(i).toString(), args.get(i + 1)) == null) {
+              count++;
+            }
+          }
+          reply.integer(count);
+          break;
+        }
+        case "HGET": {
+          arity(args, 3);
+          final Map<String, Buffer> hash = hash(key(args, 1), false);
+          reply.bulk(hash == null ? null : hash.get(args.get(2).toString()));
+          break;
+        }
+        case "HGETALL": {
+          arity(args, 2);
+          final Map<String, Buffer> hash = hash(key(args, 1), false);
+          if (hash == null) {
+            reply.map(0);
+          } else {
+            reply.map(hash.size());
+            for (Map.Entry<String, Buffer> kv : hash.entrySet()) {
+              reply.bulk(kv.getKey()).bulk(kv.getValue());
+            }
+          }
+          break;
+        }
+        case "HDEL": {
+          final Map<String, Buffer> hash = hash(key(args, 1), false);
+          int count = 0;
+          if (hash != null) {
+            for (int i = 2; i < args.size(); i++) {
+              if (hash.remove(args.get(i).toString()) != null) {
+                count++;
+              }
+            }
+            if (hash.isEmpty()) {
+              data.remove(key(args, 1));
+            }
+          }
+          reply.integer(count);
+          break;
+        }
+        case "HLEN": {
+          arity(args, 2);
+          final Map<String, Buffer> hash = hash(key(args, 1), false);
+          reply.integer(hash == null ? 0 : hash.size());
+          break;
+        }
+        case "HEXISTS": {
+          arity(args, 3);
+          final Map<String, Buffer> hash = hash(key(args, 1), false);
+          reply.integer(hash != null && hash.containsKey(args.get(2).toString()) ? 1 : 0);
+          break;
+        }
+        // lists
+        case "LPUSH":
+        case "RPUSH": {
+          if (args.size() < 3) {
+            throw wrongArity();
+          }
+          final LinkedList<Buffer> list = list(key(args, 1), true);
+          for (int i = 2; i < args.size(); i++) {
+            if ("LPUSH".equals(command)) {
+              list.addFirst(args.get(i));
+            } else {
+              list.addLast(args.get(i));
+            }
+          }
+          reply.integer(list.size());
+          break;
+        }
+        case "LPOP":
+        case "RPOP": {
+          arity(args, 2);
+          final LinkedList<Buffer> list = list(key(args, 1), false);
+          if (list == null) {
+            reply.nil();
+          } else {
+            reply.bulk("LPOP".equals(command) ? list.removeFirst() : list.removeLast());
+            if (list.isEmpty()) {
+              data.remove(key(args, 1));
+            }
+          }
+          break;
+        }
+        case "LLEN": {
+          arity(args, 2);
+          final LinkedList<Buffer> list = list(key(args, 1), false);
+          reply.integer(list == null ? 0 : list.size());
+          break;
+        }
+        case "LRANGE": {
+          arity(args, 4);
+          final LinkedList<Buffer> list = list(key(args, 1), false);
+          if (list == null) {
+            reply.array(0);
+            break;
+          }
+          long start = integer(args.get(2));
+          long stop = integer(args.get(3));
+          if (start < 0) {
+            start = Math.max(0, list.size() + start);
+          }
+          if (stop < 0) {
+            stop = list.size() + stop;
+          }
+          stop = Math.min(stop, list.size() - 1);
+          if (start > stop) {
+            reply.array(0);
+            break;
+          }
+          reply.array((int) (stop - start + 1));
+          for (Buffer value : list.subList((int) start, (int) stop + 1)) {
+            reply.bulk(value);
+          }
+          break;
+        }
+        // pub/sub
+        case "SUBSCRIBE":
+        case "PSUBSCRIBE": {
+          if (args.size() < 2) {
+            throw wrongArity();
+          }
+          final boolean pattern = "PSUBSCRIBE".equals(command);
+          for (int i = 1; i < args.size(); i++) {
+            final String name = args.get(i).toString();
+            (pattern ? psubscriptions : subscriptions).add(name);
+            (pattern ? patterns : channels).computeIfAbsent(name, k -> new LinkedHashSet<>()).add(this);
+            reply.push(3).bulk(command.toLowerCase(Locale.ROOT)).bulk(name).integer(subscriptions.size() + psubscriptions.size());
+          }
+          break;
+        }
+        case "UNSUBSCRIBE":
+        case "PUNSUBSCRIBE": {
+          final boolean pattern = "PUNSUBSCRIBE".equals(command);
+          final Set<String> names = pattern ? psubscriptions : subscriptions;
+          final List<String> unsubscribed = new ArrayList<>();
+          if (args.size() == 1) {
+            unsubscribed.addAll(names);
+          } else {
+            for (int i = 1; i < args.size(); i++) {
+              unsubscribed.add(args.get(i).toString());
+            }
+          }
+          for (String name : unsubscribed) {
+            names.remove(name);
+            unsubscribe(pattern ? patterns : channels, name);
+            reply.push(3).bulk(command.toLowerCase(Locale.ROOT)).bulk(name).integer(subscriptions.size() + psubscriptions.size());
+          }
+          break;
+        }
+        case "PUBLISH":
+          arity(args, 3);
+          reply.integer(publish(args.get(1).toString(), args.get(2)));
+          break;
+        // cluster
+        case "CLUSTER":
+          if (args.size() < 2 || !"SLOTS".equalsIgnoreCase(args.get(1).toString())) {
+            throw new IllegalStateException("ERR unknown subcommand for 'cluster'");
+          }
+          if (slots.isEmpty()) {
+            throw new IllegalStateException("ERR This instance has cluster support disabled");
+          }
+          reply.array(slots.size());
+          for (Object[] range : slots) {
+            reply.array(3)
+              .integer((int) range[0])
+              .integer((int) range[1])
+              .array(3)
+              .bulk((String) range[2])
+              .integer((int) range[3])
+              .bulk(range[2] + ":" + range[3]);
+          }
+          break;
+        // sentinel
+        case "SENTINEL":
+          sentinel(args, reply);
+          break;
+        default:
+          throw new IllegalStateException("ERR unknown command '" + args.get(0) + "'");
+      }
+    }
+
+    private void auth(Buffer secret) {
+      if (password != null && !password.equals(secret.toString())) {
+        throw new IllegalStateException("WRONGPASS invalid username-password pair or user is disabled.");
+      }
+      authenticated = true;
+    }
+
+    private void hello(List<Buffer> args) {
+      // HELLO protover [AUTH username password] [SETNAME clientname]
+      for (int i = 2; i < args.size(); i++) {
+        if ("AUTH".equalsIgnoreCase(args.get(i).toString()) && i + 2 < args.size()) {
+          auth(args.get(i + 2));
+        }
+      }
+      if (password != null && !authenticated) {
+        throw new IllegalStateException("NOAUTH HELLO must be called with the client already authenticated");
+      }
+
+      if (args.size() > 1) {
+        switch (args.get(1).toString()) {
+          case "2":
+            resp3 = false;
+            break;
+          case "3":
+            resp3 = true;
+            break;
+          default:
+            throw new IllegalStateException("NOPROTO unsupported protocol version");
+        }
+      }
+
+      final Reply reply = reply()
+        .map(7)
+        .bulk("server").bulk("redis")
+        .bulk("version").bulk("7.0.0")
+        .bulk("proto").integer(resp3 ? 3 : 2)
+        .bulk("id").integer(hashCode())
+        .bulk("mode").bulk(masterName != null ? "sentinel" : slots.isEmpty() ? "standalone" : "cluster")
+        .bulk("role").bulk("master")
+        .bulk("modules").array(0);
+      write(reply.buffer);
+    }
+
+    private void set(List<Buffer> args, Reply reply) {
+      if (args.size() < 3) {
+        throw wrongArity();
+      }
+      final String key = key(args, 1);
+      boolean nx = false;
+      boolean xx = false;
+      // expirations are accepted but not enforced
+      for (int i = 3; i < args.size(); i++) {
+        final String option = args.get(i).toString().toUpperCase(Locale.ROOT);
+        if ("NX".equals(option)) {
+          nx = true;
+        } else if ("XX".equals(option)) {
+          xx = true;
+        }
+      }
+      if ((nx && data.containsKey(key)) || (xx && !data.containsKey(key))) {
+        reply.nil();
+        return;
+      }
+      data.put(key, args.get(2));
+      reply.simple("OK");
+    }
+
+    private void sentinel(List<Buffer> args, Reply reply) {
+      if (masterName == null) {
+        throw new IllegalStateException("ERR unknown command 'SENTINEL'");
+      }
+      if (args.size() < 3) {
+        throw wrongArity();
+      }
+      final String subcommand = args.get(1).toString().toUpperCase(Locale.ROOT);
+      final boolean monitored = masterName.equals(args.get(2).toString());
+
+      switch (subcommand) {
+        case "GET-MASTER-ADDR-BY-NAME":
+          if (monitored) {
+            reply.array(2).bulk(masterHost).bulk(Integer.toString(masterPort));
+          } else {
+            reply.nil();
+          }
+          break;
+        case "SLAVES":
+        case "REPLICAS":
+          if (!monitored) {
+            throw new IllegalStateException("ERR No such master with that name");
+          }
+          reply.array(replicas.size());
+          for (Object[] replica : replicas) {
+            // replicas are described as flat arrays of fields and values
+            reply.array(8)
+              .bulk("name").bulk(replica[0] + ":" + replica[1])
+              .bulk("ip").bulk((String) replica[0])
+              .bulk("port").bulk(Integer.toString((int) replica[1]))
+              .bulk("flags").bulk("slave");
+          }
+          break;
+        default:
+          throw new IllegalStateException("ERR unknown subcommand for 'sentinel'");
+      }
+    }
+
+    private Buffer string(String key) {
+      final Object value = data.get(key);
+      if (value != null && !(value instanceof Buffer)) {
+        throw wrongType();
+      }
+      return (Buffer) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Buffer> hash(String key, boolean create) {
+      final Object value = data.get(key);
+      if (value == null) {
+        if (!create) {
+          return null;
+        }
+        final Map<String, Buffer> hash = new LinkedHashMap<>();
+        data.put(key, hash);
+        return hash;
+      }
+      if (!(value instanceof Map)) {
+        throw wrongType();
+      }
+      return (Map<String, Buffer>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private LinkedList<Buffer> list(String key, boolean create) {
+      final Object value = data.get(key);
+      if (value == null) {
+        if (!create) {
+          return null;
+        }
+        final LinkedList<Buffer> list = new LinkedList<>();
+        data.put(key, list);
+        return list;
+      }
+      if (!(value instanceof LinkedList)) {
+        throw wrongType();
+      }
+      return (LinkedList<Buffer>) value;
+    }
+
+    private long incr(String key, long delta) {
+      final Buffer value = string(key);
+      final long result = (value == null ? 0 : integer(value)) + delta;
+      data.put(key, Buffer.buffer(Long.toString(result)));
+      return result;
+    }
+  }
+
+  private static String key(List<Buffer> args, int index) {
+    return args.get(index).toString(StandardCharsets.UTF_8);
+  }
+
+  private static long integer(Buffer value) {
+    try {
+      return Long.parseLong(value.toString());
+    } catch (NumberFormatException e) {
+      throw new IllegalStateException("ERR value is not an integer or out of range");
+    }
+  }
+
+  private static void arity(List<Buffer> args, int expected) {
+    if (args.size() != expected) {
+      throw wrongArity();
+    }
+  }
+
+  private static IllegalStateException wrongArity() {
+    return new IllegalStateException("ERR wrong number of arguments");
+  }
+
+  private static IllegalStateException wrongType() {
+    return new IllegalStateException("WRONGTYPE Operation against a key holding the wrong kind of value");
+  }
+}
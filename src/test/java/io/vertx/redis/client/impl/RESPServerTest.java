@@ -0,0 +1,210 @@
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.redis.client.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static io.vertx.redis.client.Command.*;
+import static io.vertx.redis.client.Request.cmd;
+
+/**
+ * Runs the client against the in-process {@link RESPServer}, no Docker is required.
+ */
+@RunWith(VertxUnitRunner.class)
+public class RESPServerTest {
+
+  @Rule
+  public final RunTestOnContext rule = new RunTestOnContext();
+
+  @Test(timeout = 30_000)
+  public void testCommands(TestContext should) {
+    final Async test = should.async();
+
+    new RESPServer(rule.vertx())
+      .listen(0)
+      .onComplete(should.asyncAssertSuccess(server -> {
+        final Redis client = Redis.createClient(rule.vertx(), server.endpoint());
+
+        client.send(cmd(SET).arg("key").arg("value"))
+          .compose(ok -> client.send(cmd(GET).arg("key")))
+          .compose(value -> {
+            should.assertEquals("value", value.toString());
+            return client.send(cmd(HSET).arg("hash").arg("a").arg("1").arg("b").arg("2"));
+          })
+          .compose(added -> {
+            should.assertEquals(2, added.toInteger());
+            return client.send(cmd(HGETALL).arg("hash"));
+          })
+          .compose(hash -> {
+            // RESP3 map
+            should.assertEquals("1", hash.get("a").toString());
+            should.assertEquals("2", hash.get("b").toString());
+            return client.send(cmd(RPUSH).arg("list").arg("x").arg("y").arg("z"));
+          })
+          .compose(length -> client.send(cmd(LRANGE).arg("list").arg(1).arg(-1)))
+          .compose(range -> {
+            should.assertEquals(2, range.size());
+            should.assertEquals("y", range.get(0).toString());
+            return client.send(cmd(INCR).arg("key"));
+          })
+          .onComplete(should.asyncAssertFailure(err -> {
+            should.assertEquals("ERR value is not an integer or out of range", err.getMessage());
+            client.close();
+            server.close().onComplete(v -> test.complete());
+          }));
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testResp2(TestContext should) {
+    final Async test = should.async();
+
+    new RESPServer(rule.vertx())
+      .listen(0)
+      .onComplete(should.asyncAssertSuccess(server -> {
+        final Redis client = Redis.createClient(rule.vertx(), new RedisOptions()
+          .setConnectionString(server.endpoint())
+          .setProtocolNegotiation(false));
+
+        client.send(cmd(HSET).arg("hash").arg("a").arg("1"))
+          .compose(added -> client.send(cmd(HGETALL).arg("hash")))
+          .onComplete(should.asyncAssertSuccess(hash -> {
+            // RESP2 flat array
+            should.assertEquals(ResponseType.MULTI, hash.type());
+            should.assertEquals(2, hash.size());
+            should.assertEquals("1", hash.get("a").toString());
+            client.close();
+            server.close().onComplete(v -> test.complete());
+          }));
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testLatency(TestContext should) {
+    final Async test = should.async();
+
+    new RESPServer(rule.vertx())
+      .latency(100)
+      .listen(0)
+      .onComplete(should.asyncAssertSuccess(server -> {
+        final Redis client = Redis.createClient(rule.vertx(), server.endpoint());
+
+        client.connect()
+          .onComplete(should.asyncAssertSuccess(conn -> {
+            final long start = System.currentTimeMillis();
+            // pipelined requests are delayed once
+            CompositeFuture.all(
+                conn.send(cmd(SET).arg("key").arg("value")),
+                conn.send(cmd(GET).arg("key")))
+              .onComplete(should.asyncAssertSuccess(replies -> {
+                final long elapsed = System.currentTimeMillis() - start;
+                should.assertTrue(elapsed >= 100);
+                should.assertTrue(elapsed < 1000);
+                should.assertEquals("value", replies.<Response>resultAt(1).toString());
+                conn.close();
+                server.close().onComplete(v -> test.complete());
+              }));
+          }));
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testPubSub(TestContext should) {
+    final Async test = should.async();
+
+    new RESPServer(rule.vertx())
+      .listen(0)
+      .onComplete(should.asyncAssertSuccess(server -> {
+        final Redis client = Redis.createClient(rule.vertx(), server.endpoint());
+
+        client.connect()
+          .onComplete(should.asyncAssertSuccess(subscriber -> {
+            subscriber.handler(message -> {
+              if ("message".equals(message.get(0).toString())) {
+                should.assertEquals("news", message.get(1).toString());
+                should.assertEquals("hello", message.get(2).toString());
+                subscriber.close();
+                server.close().onComplete(v -> test.complete());
+              } else {
+                // the subscription is confirmed
+                client.send(cmd(PUBLISH).arg("news").arg("hello"))
+                  .onComplete(should.asyncAssertSuccess(receivers -> should.assertEquals(1, receivers.toInteger())));
+              }
+            });
+
+            subscriber.send(cmd(SUBSCRIBE).arg("news"));
+          }));
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testCluster(TestContext should) {
+    final Async test = should.async();
+
+    final RESPServer node1 = new RESPServer(rule.vertx());
+    final RESPServer node2 = new RESPServer(rule.vertx());
+
+    CompositeFuture.all(node1.listen(0), node2.listen(0))
+      .onComplete(should.asyncAssertSuccess(listen -> {
+        // both nodes publish the same topology
+        for (RESPServer node : new RESPServer[]{node1, node2}) {
+          node
+            .slots(0, 8191, "localhost", node1.port())
+            .slots(8192, 16383, "localhost", node2.port());
+        }
+        // "foo" is in slot 12182, served by node2 and being migrated to node1
+        node2.ask(12182, "localhost:" + node1.port());
+        // "bar" is in slot 5061, served by node1 and moved to node2
+        node1.moved(5061, "localhost:" + node2.port());
+
+        final Redis client = Redis.createClient(rule.vertx(), new RedisOptions()
+          .setType(RedisClientType.CLUSTER)
+          .addConnectionString(node1.endpoint()));
+
+        client.send(cmd(SET).arg("foo").arg("1"))
+          .compose(ok -> {
+            // the ASK redirection was followed
+            should.assertEquals("OK", ok.toString());
+            return client.send(cmd(SET).arg("bar").arg("2"));
+          })
+          .onComplete(should.asyncAssertFailure(err -> {
+            should.assertTrue(err.getMessage().startsWith("MOVED 5061"));
+            client.close();
+            CompositeFuture.all(node1.close(), node2.close()).onComplete(v -> test.complete());
+          }));
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testSentinel(TestContext should) {
+    final Async test = should.async();
+
+    final RESPServer master = new RESPServer(rule.vertx());
+    final RESPServer sentinel = new RESPServer(rule.vertx());
+
+    CompositeFuture.all(master.listen(0), sentinel.listen(0))
+      .onComplete(should.asyncAssertSuccess(listen -> {
+        sentinel.sentinel("mymaster", "localhost", master.port());
+
+        final Redis client = Redis.createClient(rule.vertx(), new RedisOptions()
+          .setType(RedisClientType.SENTINEL)
+          .addConnectionString(sentinel.endpoint())
+          .setMasterName("mymaster")
+          .setRole(RedisRole.MASTER));
+
+        client.send(cmd(SET).arg("key").arg("value"))
+          .compose(ok -> client.send(cmd(GET).arg("key")))
+          .onComplete(should.asyncAssertSuccess(value -> {
+            should.assertEquals("value", value.toString());
+            client.close();
+            CompositeFuture.all(master.close(), sentinel.close()).onComplete(v -> test.complete());
+          }));
+      }));
+  }
+}
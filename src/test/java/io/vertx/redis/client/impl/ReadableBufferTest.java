@@ -0,0 +1,127 @@
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.buffer.Buffer;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ReadableBufferTest {
+
+  @Test
+  public void testReadAcrossChunks() {
+    ReadableBuffer buffer = new ReadableBuffer();
+
+    buffer.append(Buffer.buffer("+PO"));
+    buffer.append(Buffer.buffer("NG\r"));
+    buffer.append(Buffer.buffer("\n"));
+
+    assertEquals('+', buffer.readByte());
+    int eol = buffer.findLineEnd();
+    assertEquals(6, eol);
+    assertEquals("PONG", buffer.readLine(eol));
+    assertEquals(0, buffer.readableBytes());
+  }
+
+  @Test
+  public void testResumeLineScan() {
+    ReadableBuffer buffer = new ReadableBuffer();
+
+    buffer.append(Buffer.buffer("+PO"));
+    buffer.mark();
+    buffer.readByte();
+    assertEquals(-1, buffer.findLineEnd());
+    buffer.reset();
+
+    buffer.append(Buffer.buffer("NG\r"));
+    buffer.readByte();
+    assertEquals(-1, buffer.findLineEnd());
+    buffer.reset();
+
+    buffer.append(Buffer.buffer("\n+OK\r\n"));
+    buffer.readByte();
+    int eol = buffer.findLineEnd();
+    assertEquals(6, eol);
+    assertEquals("PONG", buffer.readLine(eol));
+
+    buffer.mark();
+    buffer.readByte();
+    eol = buffer.findLineEnd();
+    assertEquals(11, eol);
+    assertEquals("OK", buffer.readLine(eol));
+  }
+
+  @Test
+  public void testDiscardReadChunks() {
+    ReadableBuffer buffer = new ReadableBuffer();
+    byte[] payload = new byte[1024];
+
+    // write way beyond the watermark, consuming as we go
+    for (int i = 0; i < 256; i++) {
+      payload[0] = (byte) i;
+      buffer.append(Buffer.buffer(payload));
+      buffer.mark();
+      Buffer read = buffer.readBytes(1024);
+      assertEquals((byte) i, read.getByte(0));
+      assertEquals(0, buffer.readableBytes());
+    }
+
+    // partial reads survive the compaction
+    buffer.append(Buffer.buffer("$6\r\nfoo"));
+    buffer.mark();
+    buffer.append(Buffer.buffer("bar\r\n"));
+    assertEquals('$', buffer.readByte());
+    assertEquals(6L, buffer.readLong(buffer.findLineEnd()));
+    assertEquals("foobar", buffer.readBytes(6).toString());
+    assertEquals(2, buffer.readableBytes());
+  }
+
+  @Test
+  public void testReadIntegers() {
+    assertEquals(0L, readLong("0"));
+    assertEquals(-1L, readLong("-1"));
+    assertEquals(Long.MAX_VALUE, readLong(Long.toString(Long.MAX_VALUE)));
+    assertEquals(Long.MIN_VALUE, readLong(Long.toString(Long.MIN_VALUE)));
+
+    try {
+      readLong("9223372036854775808");
+      fail("Should overflow");
+    } catch (ArithmeticException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testReadDoubles() {
+    String[] values = {"0", "-0", "1.5", "-3.14159", "0.1", "123456789012345", "1234567890.1234567", "1e10", "2.5E-3", ".5"};
+
+    for (String value : values) {
+      assertEquals(value, Double.parseDouble(value), readDouble(value), 0);
+    }
+
+    assertEquals(Double.POSITIVE_INFINITY, readDouble("inf"), 0);
+    assertEquals(Double.NEGATIVE_INFINITY, readDouble("-inf"), 0);
+    assertEquals(Double.NaN, readDouble("nan"), 0);
+  }
+
+  @Test
+  public void testReadBigInteger() {
+    ReadableBuffer buffer = new ReadableBuffer();
+    buffer.append(Buffer.buffer("3492890328409238509324850943850943825024385\r\n"));
+    assertEquals(new BigInteger("3492890328409238509324850943850943825024385"), buffer.readBigInteger(buffer.findLineEnd()));
+  }
+
+  private static long readLong(String value) {
+    ReadableBuffer buffer = new ReadableBuffer();
+    buffer.append(Buffer.buffer(value + "\r\n"));
+    return buffer.readLong(buffer.findLineEnd());
+  }
+
+  private static double readDouble(String value) {
+    ReadableBuffer buffer = new ReadableBuffer();
+    buffer.append(Buffer.buffer(value + "\r\n"));
+    return buffer.readDouble(buffer.findLineEnd());
+  }
+}
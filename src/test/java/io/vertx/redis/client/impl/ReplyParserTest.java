@@ -1,11 +1,15 @@
 package io.vertx.redis.client.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.RunTestOnContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseType;
 import io.vertx.redis.client.impl.types.BulkType;
 import io.vertx.redis.client.impl.types.MultiType;
 import org.junit.Ignore;
@@ -13,7 +17,10 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @RunWith(VertxUnitRunner.class)
@@ -71,6 +78,31 @@ public class ReplyParserTest {
     parser.handle(Buffer.buffer("\n"));
   }
 
+  @Test(timeout = 30_000)
+  public void testParseMultiInChunks(TestContext should) {
+    final Async test = should.async();
+
+    final RESPParser parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        should.assertEquals(3, response.size());
+        should.assertEquals("foobar", response.get(0).toString());
+        should.assertEquals(42L, response.get(1).toLong());
+        should.assertEquals("", response.get(2).toString());
+        test.complete();
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        should.fail(t);
+      }
+    }, 16);
+
+    for (byte b : "*3\r\n$6\r\nfoobar\r\n:42\r\n$0\r\n\r\n".getBytes()) {
+      parser.handle(Buffer.buffer(new byte[]{b}));
+    }
+  }
+
   @Test(timeout = 30_000)
   public void testIntegerType(TestContext should) {
     final Async test = should.async();
@@ -111,6 +143,29 @@ public class ReplyParserTest {
     parser.handle(Buffer.buffer(":-1\r\n"));
   }
 
+  @Test(timeout = 30_000)
+  public void testSmallIntegersAreCached(TestContext should) {
+    final Async test = should.async(2);
+    final Response[] replies = new Response[2];
+
+    final RESPParser parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        should.assertEquals(1L, response.toLong());
+        replies[test.count() - 1] = response;
+        test.countDown();
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        should.fail(t);
+      }
+    }, 16);
+
+    parser.handle(Buffer.buffer(":1\r\n:1\r\n"));
+    should.assertTrue(replies[0] == replies[1]);
+  }
+
   @Test(timeout = 30_000)
   public void testBulk(TestContext should) {
     final Async test = should.async();
@@ -380,6 +435,126 @@ public class ReplyParserTest {
         "91600\r\n"));
   }
 
+  @Test(timeout = 30_000)
+  public void testParseStreamedBulk(TestContext should) {
+    final Async test = should.async();
+    final Buffer received = Buffer.buffer();
+    final AtomicInteger chunks = new AtomicInteger();
+    final AtomicInteger replies = new AtomicInteger();
+
+    final RESPParser parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        switch (replies.incrementAndGet()) {
+          case 1:
+            // the streamed bulk is completed with an empty bulk
+            should.assertEquals(BulkType.EMPTY, response);
+            should.assertEquals("Hello World!", received.toString());
+            should.assertTrue(chunks.get() > 1);
+            break;
+          case 2:
+            // the following reply is parsed as usual
+            should.assertEquals("OK", response.toString());
+            test.complete();
+            break;
+        }
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        should.fail(t);
+      }
+
+      @Override
+      public Handler<Buffer> bulkStream() {
+        if (replies.get() > 0) {
+          return null;
+        }
+        return chunk -> {
+          chunks.incrementAndGet();
+          received.appendBuffer(chunk);
+        };
+      }
+    }, 16);
+
+    parser.handle(Buffer.buffer("$12\r\nHello"));
+    parser.handle(Buffer.buffer(" Wor"));
+    parser.handle(Buffer.buffer("ld!\r"));
+    parser.handle(Buffer.buffer("\n+OK\r\n"));
+  }
+
+  @Test(timeout = 30_000)
+  public void testParseStreamedMulti(TestContext should) {
+    final Async test = should.async();
+    final List<Response> elements = new ArrayList<>();
+
+    final RESPParser parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        // the streamed aggregate holds no elements
+        should.assertEquals(ResponseType.MULTI, response.type());
+        should.assertEquals(4, elements.size());
+        should.assertEquals("a", elements.get(0).toString());
+        should.assertNull(elements.get(1));
+        // nested aggregates are emitted once complete
+        should.assertEquals(2, elements.get(2).size());
+        should.assertEquals("c", elements.get(2).get(1).toString());
+        should.assertEquals(7L, elements.get(3).toLong());
+        test.complete();
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        should.fail(t);
+      }
+
+      @Override
+      public Handler<Response> multiStream() {
+        return elements::add;
+      }
+    }, 16);
+
+    parser.handle(Buffer.buffer("*4\r\n$1\r\na\r\n$-1\r\n*2\r\n+b\r\n"));
+    // the nested aggregate is not complete yet
+    should.assertEquals(2, elements.size());
+    parser.handle(Buffer.buffer("+c\r\n:7\r\n"));
+  }
+
+  @Test(timeout = 30_000)
+  public void testParseZeroCopy(TestContext should) {
+    final List<Response> replies = new ArrayList<>();
+
+    final RESPParser parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        replies.add(response);
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        should.fail(t);
+      }
+    }, 16, true);
+
+    final ByteBuf first = Unpooled.directBuffer().writeBytes("*2\r\n$5\r\nhel".getBytes(StandardCharsets.US_ASCII));
+    final ByteBuf second = Unpooled.directBuffer().writeBytes("lo\r\n$5\r\nworld\r\n".getBytes(StandardCharsets.US_ASCII));
+    parser.handleMessage(first);
+    parser.handleMessage(second);
+
+    should.assertEquals(1, replies.size());
+    final Response reply = replies.get(0);
+    // the payloads span and retain the network chunks
+    should.assertEquals("hello", reply.get(0).toString());
+    should.assertEquals("world", reply.get(1).toString());
+    should.assertTrue(first.refCnt() > 0);
+    should.assertTrue(second.refCnt() > 0);
+
+    reply.release();
+    parser.release();
+    should.assertEquals(0, first.refCnt());
+    should.assertEquals(0, second.refCnt());
+  }
+
   @Test
   @Ignore("Broken Azure output")
   public void parseAzureHello(TestContext should) {
@@ -1,9 +1,22 @@
 package io.vertx.redis.client.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.redis.client.Command;
+import io.vertx.redis.client.PreparedRequest;
 import io.vertx.redis.client.Request;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 public class RequestImplTest {
 
   @Test
@@ -17,4 +30,100 @@ public class RequestImplTest {
     RequestImpl r = (RequestImpl) Request.cmd(Command.LLEN).arg("mylist");
     System.out.println(r.encode());
   }
+
+  @Test
+  public void testEncodedLength() {
+    RequestImpl r = (RequestImpl) Request.cmd(Command.SET)
+      .arg("key")
+      .arg(Buffer.buffer(new byte[1000]))
+      .arg(-123456789L)
+      .arg("")
+      .nullArg();
+
+    ByteBuf encoded = r.encode(UnpooledByteBufAllocator.DEFAULT);
+    try {
+      // the buffer is allocated with the exact size
+      assertEquals(r.encodedLength(), encoded.readableBytes());
+      assertEquals(encoded.capacity(), encoded.readableBytes());
+      assertEquals(r.encode().toString(StandardCharsets.ISO_8859_1), encoded.toString(StandardCharsets.ISO_8859_1));
+    } finally {
+      encoded.release();
+    }
+  }
+
+  @Test
+  public void testLargeArgumentsByReference() {
+    ByteBuf value = Unpooled.directBuffer().writeBytes(new byte[64 * 1024]);
+    RequestImpl r = (RequestImpl) Request.cmd(Command.SET)
+      .arg("key")
+      .arg(value);
+
+    ByteBuf encoded = r.encode(UnpooledByteBufAllocator.DEFAULT);
+    // the framing and the argument are separate components
+    assertTrue(encoded instanceof CompositeByteBuf);
+    assertEquals(3, ((CompositeByteBuf) encoded).numComponents());
+    assertEquals("*3\r\n$3\r\nSET\r\n$3\r\nkey\r\n$65536\r\n".length() + 65536 + 2, encoded.readableBytes());
+    // the argument is retained until written
+    assertEquals(2, value.refCnt());
+    encoded.release();
+    assertEquals(1, value.refCnt());
+    // the argument can be encoded again, e.g.: on a redirection
+    assertEquals(r.encode().length(), r.encode().length());
+    value.release();
+  }
+
+  @Test
+  public void testDescriptors() {
+    RequestImpl r = (RequestImpl) Request.cmd(Command.SET)
+      .arg("key")
+      .arg("h\u00e9llo")
+      .arg(123456789L)
+      .arg(Long.MIN_VALUE)
+      .arg(1.5);
+
+    assertEquals(
+      "*6\r\n$3\r\nset\r\n$3\r\nkey\r\n$6\r\nh\u00e9llo\r\n$9\r\n123456789\r\n$20\r\n-9223372036854775808\r\n$3\r\n1.5\r\n",
+      r.encode().toString(StandardCharsets.UTF_8));
+    assertEquals(r.encodedLength(), r.encode().length());
+    // keys are seen as bytes
+    assertEquals("key", new String(r.keys().get(0), StandardCharsets.UTF_8));
+
+    RequestImpl fixed = (RequestImpl) Request.cmd(Command.SET, "key", 123456789L, 2.5f, -1);
+    assertEquals(
+      "*5\r\n$3\r\nset\r\n$3\r\nkey\r\n$9\r\n123456789\r\n$3\r\n2.5\r\n$2\r\n-1\r\n",
+      fixed.encode().toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testPrepared() {
+    PreparedRequest hget = PreparedRequest.prepare(Command.HGET, 1, "hash");
+
+    RequestImpl r = (RequestImpl) hget.request().arg("field");
+    assertTrue(r.valid());
+    assertEquals(
+      "*3\r\n$4\r\nhget\r\n$4\r\nhash\r\n$5\r\nfield\r\n",
+      r.encode().toString(StandardCharsets.UTF_8));
+    assertEquals(r.encodedLength(), r.encode().length());
+    // the same bytes as a plain request
+    assertEquals(Request.cmd(Command.HGET).arg("hash").arg("field").toString(), r.toString());
+    // constants are seen as keys
+    assertEquals("hash", new String(r.keys().get(0), StandardCharsets.UTF_8));
+
+    // the variables must be bound
+    assertFalse(((RequestImpl) hget.request()).valid());
+    assertFalse(((RequestImpl) hget.request().arg("a").arg("b")).valid());
+
+    // a large prefix is referenced
+    byte[] big = new byte[4096];
+    Arrays.fill(big, (byte) 'x');
+    PreparedRequest set = PreparedRequest.prepare(Command.SET, 1, big);
+    RequestImpl large = (RequestImpl) set.request().arg("v");
+    ByteBuf encoded = large.encode(UnpooledByteBufAllocator.DEFAULT);
+    try {
+      assertTrue(encoded instanceof CompositeByteBuf);
+      assertEquals(large.encode().getByteBuf(), encoded);
+    } finally {
+      encoded.release();
+    }
+  }
 }
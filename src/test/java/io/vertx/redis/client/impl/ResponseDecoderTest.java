@@ -0,0 +1,145 @@
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseDecoder;
+import io.vertx.redis.client.impl.types.ErrorType;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ResponseDecoderTest {
+
+  @Test
+  public void testDecodeLong() {
+    assertEquals(Long.valueOf(42L), decode(ResponseDecoder.longValue(), ":42\r\n").result());
+    assertEquals(Long.valueOf(-7L), decode(ResponseDecoder.longValue(), "$2\r\n-7\r\n").result());
+    assertNull(decode(ResponseDecoder.longValue(), "$-1\r\n").result());
+  }
+
+  @Test
+  public void testDecodeBufferList() {
+    List<Buffer> list = decode(ResponseDecoder.bufferList(), "*3\r\n$1\r\na\r\n$-1\r\n$0\r\n\r\n").result();
+    assertEquals(3, list.size());
+    assertEquals("a", list.get(0).toString());
+    assertNull(list.get(1));
+    assertEquals(0, list.get(2).length());
+  }
+
+  @Test
+  public void testDecodeBufferMap() {
+    // RESP2
+    Map<String, Buffer> map = decode(ResponseDecoder.bufferMap(), "*4\r\n$1\r\na\r\n$1\r\n1\r\n$1\r\nb\r\n$1\r\n2\r\n").result();
+    assertEquals(2, map.size());
+    assertEquals("1", map.get("a").toString());
+    assertEquals("2", map.get("b").toString());
+    // RESP3
+    map = decode(ResponseDecoder.bufferMap(), "%2\r\n$1\r\na\r\n$1\r\n1\r\n+b\r\n$1\r\n2\r\n").result();
+    assertEquals(2, map.size());
+    assertEquals("1", map.get("a").toString());
+    assertEquals("2", map.get("b").toString());
+  }
+
+  @Test
+  public void testDecodeScoredMembers() {
+    // RESP2
+    Map<String, Double> members = decode(ResponseDecoder.scoredMembers(), "*4\r\n$1\r\na\r\n$3\r\n1.5\r\n$1\r\nb\r\n$1\r\n2\r\n").result();
+    assertArrayEquals(new String[]{"a", "b"}, members.keySet().toArray());
+    assertEquals(1.5, members.get("a"), 0);
+    assertEquals(2, members.get("b"), 0);
+    // RESP3
+    members = decode(ResponseDecoder.scoredMembers(), "*2\r\n*2\r\n$1\r\na\r\n,1.5\r\n*2\r\n$1\r\nb\r\n,2\r\n").result();
+    assertArrayEquals(new String[]{"a", "b"}, members.keySet().toArray());
+    assertEquals(1.5, members.get("a"), 0);
+    assertEquals(2, members.get("b"), 0);
+  }
+
+  @Test
+  public void testDecodeErrors() {
+    // top level errors fail the request
+    Future<Long> result = decode(ResponseDecoder.longValue(), "-ERR wrong type\r\n");
+    assertTrue(result.cause() instanceof ErrorType);
+    // nested errors fail the request once the reply is complete
+    Future<List<Buffer>> list = decode(ResponseDecoder.bufferList(), "*2\r\n-ERR nested\r\n$1\r\na\r\n");
+    assertEquals("ERR nested", list.cause().getMessage());
+    // decoder failures fail the request
+    result = decode(ResponseDecoder.longValue(), "*1\r\n:1\r\n");
+    assertTrue(result.cause() instanceof IllegalStateException);
+  }
+
+  @Test
+  public void testDecodeFollowedByReply() {
+    final Promise<List<Buffer>> promise = Promise.promise();
+    final DecodedReply<List<Buffer>> reply = new DecodedReply<>(promise, ResponseDecoder.bufferList());
+    final Response[] next = new Response[1];
+
+    final RESPParser parser = new RESPParser(new ParserHandler() {
+      private boolean decoding = true;
+
+      @Override
+      public void handle(Response response) {
+        next[0] = response;
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        throw new AssertionError(t);
+      }
+
+      @Override
+      public ResponseDecoder<?> decoder() {
+        return decoding ? reply : null;
+      }
+
+      @Override
+      public void decoded(ErrorType failure) {
+        decoding = false;
+        reply.complete(failure);
+      }
+    }, 16);
+
+    // attributes are skipped and replies after the decoded one are parsed as usual
+    parser.handle(Buffer.buffer("*2\r\n|1\r\n+key\r\n+value\r\n+a\r\n+b\r\n"));
+    parser.handle(Buffer.buffer("+OK\r\n"));
+
+    assertEquals(2, promise.future().result().size());
+    assertEquals("b", promise.future().result().get(1).toString());
+    assertEquals("OK", next[0].toString());
+  }
+
+  private static <T> Future<T> decode(ResponseDecoder<T> decoder, String message) {
+    final Promise<T> promise = Promise.promise();
+    final DecodedReply<T> reply = new DecodedReply<>(promise, decoder);
+
+    final RESPParser parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        throw new AssertionError("Reply was not decoded: " + response);
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        throw new AssertionError(t);
+      }
+
+      @Override
+      public ResponseDecoder<?> decoder() {
+        return reply;
+      }
+
+      @Override
+      public void decoded(ErrorType failure) {
+        reply.complete(failure);
+      }
+    }, 16);
+
+    parser.handle(Buffer.buffer(message));
+    assertTrue(promise.future().isComplete());
+    return promise.future();
+  }
+}
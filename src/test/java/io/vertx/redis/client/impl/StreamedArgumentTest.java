@@ -0,0 +1,119 @@
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.redis.client.Redis;
+import io.vertx.redis.client.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static io.vertx.redis.client.Command.*;
+import static io.vertx.redis.client.Request.cmd;
+
+/**
+ * Requests with arguments streamed from a {@link io.vertx.core.streams.ReadStream}, against the {@link RESPServer}.
+ */
+@RunWith(VertxUnitRunner.class)
+public class StreamedArgumentTest {
+
+  @Rule
+  public final RunTestOnContext rule = new RunTestOnContext();
+
+  private RESPServer server;
+  private Redis client;
+
+  @Before
+  public void before(TestContext should) {
+    server = new RESPServer(rule.vertx());
+    server.listen(0)
+      .onComplete(should.asyncAssertSuccess(s -> client = Redis.createClient(rule.vertx(), server.endpoint())));
+  }
+
+  @After
+  public void after(TestContext should) {
+    client.close();
+    server.close().onComplete(should.asyncAssertSuccess());
+  }
+
+  @Test(timeout = 30_000)
+  public void testStreamedArgument(TestContext should) throws IOException {
+    final Async test = should.async();
+    final File file = file(4 * 1024 * 1024);
+
+    client.connect()
+      .compose(conn -> rule.vertx().fileSystem()
+        .open(file.getAbsolutePath(), new OpenOptions().setRead(true))
+        .compose(source -> CompositeFuture.all(
+          conn.send(cmd(SET).arg("blob").arg(source, file.length())),
+          // held until the stream is written
+          conn.send(cmd(STRLEN).arg("blob"))))
+        .onComplete(v -> conn.close()))
+      .onComplete(should.asyncAssertSuccess(replies -> {
+        should.assertEquals("OK", replies.<Response>resultAt(0).toString());
+        should.assertEquals(file.length(), replies.<Response>resultAt(1).toLong());
+        test.complete();
+      }));
+  }
+
+  @Test(timeout = 30_000)
+  public void testShortStreamClosesConnection(TestContext should) throws IOException {
+    final File file = file(1024);
+    // the stream provides less than its declared length
+    failedStream(should, file, file.length() + 10, "Streamed argument ended 10 bytes short of its length");
+  }
+
+  @Test(timeout = 30_000)
+  public void testLongStreamClosesConnection(TestContext should) throws IOException {
+    final File file = file(1024);
+    // the stream provides more than its declared length
+    failedStream(should, file, 10, "Streamed argument exceeds its length of 10 bytes");
+  }
+
+  private void failedStream(TestContext should, File file, long length, String message) {
+    final Async closed = should.async();
+    final Async held = should.async();
+    final Async streamed = should.async();
+
+    client.connect()
+      .onComplete(should.asyncAssertSuccess(conn -> {
+        conn.endHandler(v -> client.send(cmd(GET).arg("other"))
+          .onComplete(should.asyncAssertSuccess(value -> {
+            should.assertNull(value);
+            closed.complete();
+          })));
+        rule.vertx().fileSystem()
+          .open(file.getAbsolutePath(), new OpenOptions().setRead(true))
+          .onComplete(should.asyncAssertSuccess(source -> {
+            conn.send(cmd(SET).arg("blob").arg(source, length))
+              .onComplete(should.asyncAssertFailure(err -> {
+                should.assertEquals(message, err.getMessage());
+                streamed.complete();
+              }));
+            // held behind the stream, it must never reach the server
+            conn.send(cmd(SET).arg("other").arg("value"))
+              .onComplete(should.asyncAssertFailure(err -> held.complete()));
+          }));
+      }));
+  }
+
+  private static File file(int size) throws IOException {
+    final byte[] content = new byte[size];
+    Arrays.fill(content, (byte) 'x');
+    final File file = File.createTempFile("redis", ".bin");
+    file.deleteOnExit();
+    Files.write(file.toPath(), content);
+    return file;
+  }
+}
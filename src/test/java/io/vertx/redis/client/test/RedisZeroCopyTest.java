@@ -0,0 +1,77 @@
+package io.vertx.redis.client.test;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.redis.client.*;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.testcontainers.containers.GenericContainer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.vertx.redis.client.Command.*;
+import static io.vertx.redis.client.Request.cmd;
+
+@RunWith(VertxUnitRunner.class)
+public class RedisZeroCopyTest {
+
+  @ClassRule
+  public static final GenericContainer<?> redis = new GenericContainer<>("redis:7")
+    .withExposedPorts(6379);
+
+  @Rule
+  public final RunTestOnContext rule = new RunTestOnContext();
+
+  @Test(timeout = 30_000)
+  public void testPausedStream(TestContext should) {
+    final Async test = should.async();
+
+    final Redis client = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setConnectionString("redis://" + redis.getHost() + ":" + redis.getFirstMappedPort())
+      .setZeroCopy(true));
+
+    final Buffer value = Buffer.buffer(new byte[32 * 1024 * 1024]);
+
+    client.send(cmd(SET).arg("blob").arg(value))
+      .compose(ok -> client.connect())
+      .onComplete(should.asyncAssertSuccess(conn -> {
+        final AtomicLong received = new AtomicLong();
+        final ReadStream<Buffer> stream = conn.sendStreaming(cmd(GET).arg("blob"));
+        stream.pause();
+        stream
+          .handler(chunk -> received.addAndGet(chunk.length()))
+          .endHandler(v -> {
+            should.assertEquals((long) value.length(), received.get());
+            conn.close();
+            client.close();
+            test.complete();
+          });
+
+        rule.vertx().setTimer(500, t -> client.send(cmd(CLIENT).arg("LIST"))
+          .onComplete(should.asyncAssertSuccess(clients -> {
+            // the reads are paused, the rest of the reply waits in the output buffer of the server
+            should.assertTrue(outputMemory(clients.toString()) > 0);
+            should.assertEquals(0L, received.get());
+            stream.resume();
+          })));
+      }));
+  }
+
+  private static long outputMemory(String clients) {
+    long max = 0;
+    for (String line : clients.split("\n")) {
+      for (String field : line.trim().split(" ")) {
+        if (field.startsWith("omem=")) {
+          max = Math.max(max, Long.parseLong(field.substring(5)));
+        }
+      }
+    }
+    return max;
+  }
+}